@@ -0,0 +1,74 @@
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+
+/**
+ * @title   Asset Accumulator
+ *
+ * @dev     Reward per share accounting of a profit asset other than Nuls,
+ *          either a cross-chain asset or a NRC20 token
+ *
+ */
+public class AssetAccumulator {
+
+    private int         assetChainId;                              // Asset chain id
+    private int         assetId;                                   // Asset id
+    private Address     token;                                     // NRC20 token contract, null for cross-chain assets
+    private BigInteger  rewardPerShare  = BigInteger.ZERO;         // Accumulated profits per weight point, scaled by 1e18
+    private BigInteger  owed            = BigInteger.ZERO;         // Profits credited to shareholders but not yet claimed
+    private BigInteger  undistributed   = BigInteger.ZERO;         // Received profits not yet credited to shareholders
+    private BigInteger  allTimeRewards  = BigInteger.ZERO;         // All time Distributed Profits
+
+    public AssetAccumulator(int assetChainId, int assetId) {
+        this.assetChainId = assetChainId;
+        this.assetId = assetId;
+    }
+
+    public AssetAccumulator(Address token) {
+        this.token = token;
+    }
+
+    public int getAssetChainId() {
+        return assetChainId;
+    }
+
+    public int getAssetId() {
+        return assetId;
+    }
+
+    public Address getToken() {
+        return token;
+    }
+
+    public BigInteger getRewardPerShare() {
+        return rewardPerShare;
+    }
+
+    public void setRewardPerShare(BigInteger rewardPerShare) {
+        this.rewardPerShare = rewardPerShare;
+    }
+
+    public BigInteger getOwed() {
+        return owed;
+    }
+
+    public void setOwed(BigInteger owed) {
+        this.owed = owed;
+    }
+
+    public BigInteger getUndistributed() {
+        return undistributed;
+    }
+
+    public void setUndistributed(BigInteger undistributed) {
+        this.undistributed = undistributed;
+    }
+
+    public BigInteger getAllTimeRewards() {
+        return allTimeRewards;
+    }
+
+    public void setAllTimeRewards(BigInteger allTimeRewards) {
+        this.allTimeRewards = allTimeRewards;
+    }
+}
@@ -0,0 +1,39 @@
+import java.math.BigInteger;
+
+/**
+ * @title   Membership Epoch
+ *
+ * @dev     Snapshot of the shareholder set taken whenever its membership
+ *          or weights change
+ *
+ */
+public class MembershipEpoch {
+
+    private long        startBlock;                                // Block at which the epoch started
+    private long        totalWeight;                               // Sum of all Shareholders weights during the epoch
+    private int         shareholders;                              // Number of Shareholders during the epoch
+    private BigInteger  rewardPerShare;                            // Accumulator value at the start of the epoch
+
+    public MembershipEpoch(long startBlock, long totalWeight, int shareholders, BigInteger rewardPerShare) {
+        this.startBlock = startBlock;
+        this.totalWeight = totalWeight;
+        this.shareholders = shareholders;
+        this.rewardPerShare = rewardPerShare;
+    }
+
+    public long getStartBlock() {
+        return startBlock;
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int getShareholders() {
+        return shareholders;
+    }
+
+    public BigInteger getRewardPerShare() {
+        return rewardPerShare;
+    }
+}
@@ -0,0 +1,47 @@
+import java.math.BigInteger;
+
+/**
+ * @title   Pool Member
+ *
+ * @dev     State of a member inside a profit pool
+ *
+ */
+public class PoolMember {
+
+    private int         weight              = 0;                   // Member weight in basis points, 0 when not a member
+    private BigInteger  rewardPerSharePaid  = BigInteger.ZERO;     // Accumulator checkpoint
+    private long        claimable           = 0;                   // Settled profits waiting to be claimed
+    private long        earned              = 0;                   // All Time Profits Earned
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public BigInteger getRewardPerSharePaid() {
+        return rewardPerSharePaid;
+    }
+
+    public void setRewardPerSharePaid(BigInteger rewardPerSharePaid) {
+        this.rewardPerSharePaid = rewardPerSharePaid;
+    }
+
+    public long getClaimable() {
+        return claimable;
+    }
+
+    public void setClaimable(long claimable) {
+        this.claimable = claimable;
+    }
+
+    public long getEarned() {
+        return earned;
+    }
+
+    public void setEarned(long earned) {
+        this.earned = earned;
+    }
+}
@@ -0,0 +1,97 @@
+import io.nuls.contract.sdk.Address;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @title   Profit Pool
+ *
+ * @dev     Independent distribution pool with its own members, weights
+ *          and reward per share accumulator
+ *
+ */
+public class ProfitPool {
+
+    private String      name;                                      // Pool name
+    private long        totalWeight     = 0;                       // Sum of all members weights
+    private int         members         = 0;                       // Number of active members
+    private BigInteger  rewardPerShare  = BigInteger.ZERO;         // Accumulated profits per weight point, scaled by 1e18
+    private long        owed            = 0;                       // Profits credited to members but not yet claimed
+    private long        undistributed   = 0;                       // Deposited profits not yet credited to members
+    private long        allTimeRewards  = 0;                       // All time Distributed Profits
+
+    private Map<Address, PoolMember> memberRecords = new HashMap<Address, PoolMember>();   // Members and past members state
+
+    public ProfitPool(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setTotalWeight(long totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public int getMembers() {
+        return members;
+    }
+
+    public void setMembers(int members) {
+        this.members = members;
+    }
+
+    public BigInteger getRewardPerShare() {
+        return rewardPerShare;
+    }
+
+    public void setRewardPerShare(BigInteger rewardPerShare) {
+        this.rewardPerShare = rewardPerShare;
+    }
+
+    public long getOwed() {
+        return owed;
+    }
+
+    public void setOwed(long owed) {
+        this.owed = owed;
+    }
+
+    public long getUndistributed() {
+        return undistributed;
+    }
+
+    public void setUndistributed(long undistributed) {
+        this.undistributed = undistributed;
+    }
+
+    public long getAllTimeRewards() {
+        return allTimeRewards;
+    }
+
+    public void setAllTimeRewards(long allTimeRewards) {
+        this.allTimeRewards = allTimeRewards;
+    }
+
+    public PoolMember getMember(Address account) {
+        return memberRecords.get(account);
+    }
+
+    /**
+     * Returns the member record, creating it on first use
+     */
+    public PoolMember memberOf(Address account) {
+        PoolMember member = memberRecords.get(account);
+        if(member == null) {
+            member = new PoolMember();
+            memberRecords.put(account, member);
+        }
+        return member;
+    }
+}
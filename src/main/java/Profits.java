@@ -1,5 +1,6 @@
 import io.nuls.contract.sdk.*;
 import io.nuls.contract.sdk.annotation.Payable;
+import io.nuls.contract.sdk.annotation.PayableMultyAsset;
 import io.nuls.contract.sdk.annotation.Required;
 import io.nuls.contract.sdk.annotation.View;
 import org.checkerframework.checker.units.qual.A;
@@ -7,8 +8,10 @@ import org.checkerframework.checker.units.qual.A;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static io.nuls.contract.sdk.Utils.emit;
 import static io.nuls.contract.sdk.Utils.require;
@@ -25,16 +28,73 @@ import static io.nuls.contract.sdk.Utils.require;
 public class Profits implements Contract{
 
     /// Constants
-    private static BigInteger MIN_NULS_AMOUNT = BigInteger.valueOf(1_000_000);    // Minimum Nuls transferable amount
+    private static long       MIN_NULS_AMOUNT = 1_000_000;                      // Minimum Nuls transferable amount
+    private static BigInteger ACC_PRECISION   = BigInteger.TEN.pow(18);         // Reward per share accumulator precision
+    private static int        DEFAULT_WEIGHT  = 10_000;                         // Weight of a single share in basis points
+    private static int        BASIS_POINTS    = 10_000;                         // 100% in basis points
+    private static int        MAX_PAGE_SIZE   = 100;                            // Max entries returned by a paginated view
 
     /// Variables
     private Address     rewardDistribution;                    // Address that manages Contract admin functions
     private boolean     locked          = false;               // Prevent Reentrancy Attacks
-    private BigInteger  allTimeRewards  = BigInteger.ZERO;     // All time Distributed Profits
+    private long        allTimeRewards  = 0;                   // All time Distributed Profits
     private boolean initialized;                               // Checks if contract is initialized
-
-    private Map<Address, BigInteger>    allTimeRewardsPerUser  = new HashMap<Address, BigInteger>();    // All Time Profits Earned by Shareholders
-    private Map<Address, Boolean>       shareholder            = new HashMap<Address, Boolean>();       // Approved Shareholders
+    private boolean     claimMode       = false;               // Shareholders pull profits through claim() instead of being paid
+    private BigInteger  rewardPerShare  = BigInteger.ZERO;     // Accumulated profits per weight point, scaled by ACC_PRECISION
+    private long        totalWeight     = 0;                   // Sum of all Shareholders weights
+    private long        totalOwed       = 0;                   // Profits credited to shareholders but not yet claimed
+    private long        carriedForward  = 0;                   // Undistributed remainder carried to the next distribution
+    private long        totalClaimed    = 0;                   // All time Profits transferred to shareholders
+    private long        unpushedProfits = 0;                   // Profits credited to the accumulators since the last round started
+    private long        autoDistributeThreshold = 0;           // Undistributed balance that triggers a distribution on deposit, 0 disables it
+    private long        distributionInterval    = 0;           // Minimum blocks between two distributions, 0 disables the schedule
+    private long        lastDistributionBlock   = 0;           // Block of the last scheduled distribution
+
+    private long        membershipEpoch = 0;                   // Current shareholder set epoch
+    private long        poolsReserved   = 0;                   // Profits deposited into pools and not yet claimed
+    private int         totalTierSplit  = 0;                   // Sum of all tiers splits in basis points
+    private int         tieredShareholders = 0;                // Shareholders in a tier
+    private long        heldProfits     = 0;                   // Weighted share of profits credited while nobody held weight
+
+    private long        streamDuration  = 0;                   // Blocks over which deposits are released, 0 disables streaming
+    private BigInteger  streamRate      = BigInteger.ZERO;     // Sum of the streaming deposits rates, scaled by ACC_PRECISION
+    private long        streamReserved  = 0;                   // Streamed profits not yet released
+    private long        streamLastBlock = 0;                   // Block up to which the stream was released
+    private long        streamEnd       = 0;                   // Block at which the newest deposit is fully released
+    private long        streamHead      = 0;                   // Oldest deposit still streaming
+    private long        streamTail      = 0;                   // Position of the next stream deposit
+
+    private boolean     roundActive     = false;               // A paginated distribution round is in progress
+    private long        roundId         = 0;                   // Current or last distribution round
+    private long        roundProfits    = 0;                   // Profits frozen at the start of the round
+    private long        roundWeight     = 0;                   // Total weight frozen at the start of the round
+    private long        roundReserved   = 0;                   // Frozen round profits not yet paid
+    private int         roundCursor     = 0;                   // Index of the next shareholder to be paid
+    private int         roundEnd        = 0;                   // Shareholders eligible for the current round
+    private long        roundPaid       = 0;                   // Round profits transferred in the current round
+    private long        roundCarriedPaid = 0;                  // Earlier claimable balances transferred along with the round profits
+    private int         roundRecipients = 0;                   // Shareholders paid in the current round
+    private long        gasSafetyMargin = 100_000;             // Gas kept aside to checkpoint the round and return
+    private boolean     compactEvents   = false;               // Emit one DistributionCompleted per round instead of one RewardPaid per payment
+
+    private long        merkleEpoch     = 0;                   // Last published Merkle distribution epoch
+    private long        merkleReserved  = 0;                   // Profits reserved for unclaimed Merkle distributions
+
+    private Map<Address, ShareholderRecord> shareholders       = new HashMap<Address, ShareholderRecord>(); // Shareholders and past Shareholders state
+
+    private Map<Long, String>           merkleRoots            = new HashMap<Long, String>();           // Merkle root per distribution epoch
+    private Map<Long, Long>             merkleRemaining        = new HashMap<Long, Long>();             // Unclaimed profits per Merkle epoch
+    private Map<String, Long>           merkleClaimed          = new HashMap<String, Long>();           // Packed claimed bitmap, 64 leaves per word
+
+    private Map<Long, Long>             streamDepositEnd       = new HashMap<Long, Long>();             // End block per stream deposit
+    private Map<Long, BigInteger>       streamDepositRate      = new HashMap<Long, BigInteger>();       // Rate per stream deposit, scaled by ACC_PRECISION
+
+    private List<ShareholderTier>         tiers                = new ArrayList<ShareholderTier>();          // Shareholder tiers, tier id is the position plus one
+    private Map<String, ProfitPool>       pools                = new HashMap<String, ProfitPool>();         // Independent distribution pools by name
+    private List<String>                  poolNames            = new ArrayList<String>();                   // Pool names in creation order
+    private Map<Long, MembershipEpoch>    epochs               = new HashMap<Long, MembershipEpoch>();      // Shareholder set snapshots per epoch
+    private Map<String, AssetAccumulator> assets               = new HashMap<String, AssetAccumulator>();  // Accumulators of cross-chain asset and NRC20 token profits
+    private List<String>                  assetKeys            = new ArrayList<String>();                   // Registered profit assets
 
     private List<Address> shareholdersList = new ArrayList<Address>(); // Shareholder Lists
 
@@ -58,11 +118,11 @@ public class Profits implements Contract{
         onlyRewardDistribution();
 
         for(int i = 0; i < shareholders_.length; i++) {
-            require(new Address(shareholders_[i]) != null, "Invalid Shareholder");
-            shareholder.put(new Address(shareholders_[i]), true);
-            shareholdersList.add(new Address(shareholders_[i]));
+            registerShareholder(new Address(shareholders_[i]), DEFAULT_WEIGHT);
         }
 
+        startEpoch();
+
         initialized = true;
 
     }
@@ -103,6 +163,28 @@ public class Profits implements Contract{
         return shareholdersList.size();
     }
 
+    /**
+     * Returns the sum of all shareholders weights
+     *
+     * @return total weight in basis points
+     */
+    @View
+    public long getTotalWeight(){
+        return totalWeight;
+    }
+
+    /**
+     * Returns Shareholder weight
+     *
+     * @param account User address
+     * @return shareholder weight in basis points
+     */
+    @View
+    public int getShareholderWeight(Address account){
+        ShareholderRecord record = shareholders.get(account);
+        return record == null ? 0 : record.getWeight();
+    }
+
     /**
      *  Returns all time rewards in Nuls
      *
@@ -110,7 +192,7 @@ public class Profits implements Contract{
      */
     @View
     public BigInteger allTimeEarned() {
-        return allTimeRewards;
+        return BigInteger.valueOf(allTimeRewards);
     }
 
 
@@ -125,151 +207,2343 @@ public class Profits implements Contract{
     }
 
     /**
-     * Returns All time Shareholder profits
+     * Returns Contract Nuls Balance not yet credited to shareholders
      *
-     * @param account User address
-     * @return all time Shareholder profits
+     * @return undistributed Nuls balance
      */
     @View
-    public BigInteger getShareholdersProfits(Address account) {
-        if(allTimeRewardsPerUser.get(account) == null){
-            return BigInteger.ZERO;
-        }
-        return allTimeRewardsPerUser.get(account);
+    public BigInteger getUndistributedBalance() {
+        return BigInteger.valueOf(undistributedBalance());
     }
 
-    /*===========================================
-
-      Modifiers
-
-     ===========================================*/
+    /**
+     * Returns all time profits transferred to shareholders
+     *
+     * @return total claimed Nuls
+     */
+    @View
+    public BigInteger getTotalClaimed() {
+        return BigInteger.valueOf(totalClaimed);
+    }
 
     /**
-     * @dev Locks Contract in order to prevent reentrancy attacks
-     * */
-    protected void nonReentrant(){
-        require(!locked, "Already Entered");
-        locked = true;
+     * Returns profits owed to shareholders and not yet claimed: credited balances,
+     * the unpaid part of an active round, open Merkle epochs and pool deposits
+     *
+     * @return total pending Nuls
+     */
+    @View
+    public BigInteger getTotalPending() {
+        return BigInteger.valueOf(totalPending());
     }
 
     /**
-     * @dev Unlocks Contract after vulnerable operations are made
-     * */
-    protected void closeReentrant(){
-        require(locked, "Not Entered");
-        locked = false;
+     * Returns the weighted share of profits credited while only tier members held shares,
+     * kept for the next weighted shareholders
+     *
+     * @return held Nuls
+     */
+    @View
+    public BigInteger getHeldProfits() {
+        return BigInteger.valueOf(heldProfits);
     }
 
     /**
-     * @dev Only allow Rewards Distribution Address to call function
-     * */
-    private void onlyRewardDistribution() {
-        require(Msg.sender().equals(rewardDistribution), "Caller is not reward distribution");
+     * Returns the contract statistics in a single call
+     *
+     * @return admin, lock status, number of shareholders, all time rewards, balance, undistributed balance,
+     *         last distribution block, profits of a default share in the next distribution and accumulator
+     */
+    @View
+    public String getContractStats() {
+        long undistributed = undistributedBalance();
+        long perShare      = totalWeight == 0 ? 0 : mulDiv(undistributed, DEFAULT_WEIGHT, totalWeight);
+
+        return "{\"rewardDistribution\":\"" + rewardDistribution + "\"" +
+                ",\"locked\":" + locked +
+                ",\"shareholders\":" + shareholdersList.size() +
+                ",\"allTimeEarned\":\"" + allTimeRewards + "\"" +
+                ",\"balance\":\"" + Msg.address().balance() + "\"" +
+                ",\"totalClaimed\":\"" + totalClaimed + "\"" +
+                ",\"totalPending\":\"" + totalPending() + "\"" +
+                ",\"undistributed\":\"" + undistributed + "\"" +
+                ",\"lastDistributionBlock\":" + lastDistributionBlock +
+                ",\"perShare\":\"" + perShare + "\"" +
+                ",\"rewardPerShare\":\"" + rewardPerShare + "\"}";
     }
 
-    /*===========================================
+    /**
+     * Returns Distribution Round Status
+     *
+     * @return true if a paginated distribution round is in progress
+     */
+    @View
+    public boolean getRoundStatus(){
+        return roundActive;
+    }
 
-      NON-ADMIN STATE MODIFIABLE FUNCTIONS
+    /**
+     * Returns the current or last distribution round id
+     *
+     * @return distribution round id
+     */
+    @View
+    public long getRoundId(){
+        return roundId;
+    }
 
-     ===========================================*/
+    /**
+     * Returns the index of the next shareholder to be paid in the current round
+     *
+     * @return distribution round cursor
+     */
+    @View
+    public int getRoundCursor(){
+        return roundCursor;
+    }
 
-    @Override
-    @Payable
-    public void _payable() {}
+    /**
+     * Returns the number of shareholders still to be paid in the current round
+     *
+     * @return shareholders left in the current round
+     */
+    @View
+    public int getRoundRemaining(){
+        return roundActive ? roundEnd - roundCursor : 0;
+    }
 
     /**
-     *  Distributes accumulated profits through holders
+     * Returns the gas left aside by a distribution call to save its cursor
+     *
+     * @return gas safety margin
      */
-    public void profitDistribution() {
+    @View
+    public long getGasSafetyMargin(){
+        return gasSafetyMargin;
+    }
 
-        require(initialized, "Not yet initialized");
+    /**
+     * Returns the undistributed remainder carried to the next distribution
+     *
+     * @return profits carried forward
+     */
+    @View
+    public BigInteger getCarriedForward() {
+        return BigInteger.valueOf(carriedForward);
+    }
 
-        // Prevent Reentrancy Attacks
-        nonReentrant();
+    /**
+     * Returns the last published Merkle distribution epoch
+     *
+     * @return Merkle epoch
+     */
+    @View
+    public long getMerkleEpoch() {
+        return merkleEpoch;
+    }
 
-        BigInteger profits = Msg.address().balance();
+    /**
+     * Returns the Merkle root of a distribution epoch
+     *
+     * @param epoch_ Merkle distribution epoch
+     * @return Merkle root
+     */
+    @View
+    public String getMerkleRoot(long epoch_) {
+        return merkleRoots.get(epoch_);
+    }
 
-        BigInteger individualProfits = profits.divide(BigInteger.valueOf(shareholdersList.size()));
+    /**
+     * Returns the unclaimed profits of a Merkle distribution epoch
+     *
+     * @param epoch_ Merkle distribution epoch
+     * @return unclaimed profits
+     */
+    @View
+    public BigInteger getMerkleRemaining(long epoch_) {
+        return BigInteger.valueOf(merkleRemainingOf(epoch_));
+    }
 
-        if(individualProfits.compareTo(MIN_NULS_AMOUNT) >= 0) {
+    /**
+     * Returns whether a Merkle leaf was already claimed
+     *
+     * @param epoch_ Merkle distribution epoch
+     * @param index_ Leaf index
+     * @return true if claimed
+     */
+    @View
+    public boolean isMerkleClaimed(long epoch_, int index_) {
+        Long word = merkleClaimed.get(merkleWordKey(epoch_, index_));
+        return word != null && (word & (1L << (index_ % 64))) != 0;
+    }
 
-            for (int i = 0; i < shareholdersList.size(); i++) {
+    /**
+     * Returns Compact Events Status
+     *
+     * @return true if rounds emit a single DistributionCompleted event
+     */
+    @View
+    public boolean getCompactEvents(){
+        return compactEvents;
+    }
 
-                shareholdersList.get(i).transfer(individualProfits);
+    /**
+     * Returns the profit assets as chainId-assetId keys and the NRC20 tokens as token-address keys
+     *
+     * @return comma separated asset keys
+     */
+    @View
+    public String getProfitAssets() {
+        StringBuilder keys = new StringBuilder();
+        for(int i = 0; i < assetKeys.size(); i++) {
+            if(i > 0) {
+                keys.append(",");
+            }
+            keys.append(assetKeys.get(i));
+        }
+        return keys.toString();
+    }
 
-                BigInteger userAllTime = (allTimeRewardsPerUser.get(i) == null) ? BigInteger.ZERO : allTimeRewardsPerUser.get(i);
+    /**
+     * Returns the accumulated profits per weight point of an asset, scaled by 1e18
+     *
+     * @param assetChainId_ Asset chain id
+     * @param assetId_      Asset id
+     * @return accumulated asset profits per weight point
+     */
+    @View
+    public BigInteger getAssetRewardPerShare(int assetChainId_, int assetId_) {
+        AssetAccumulator asset = assets.get(assetKey(assetChainId_, assetId_));
+        return asset == null ? BigInteger.ZERO : asset.getRewardPerShare();
+    }
 
-                allTimeRewardsPerUser.put(shareholdersList.get(i), userAllTime.add(individualProfits));
+    /**
+     * Returns Shareholder profits of an asset already credited and not yet claimed
+     *
+     * @param account       User address
+     * @param assetChainId_ Asset chain id
+     * @param assetId_      Asset id
+     * @return claimable Shareholder asset profits
+     */
+    @View
+    public BigInteger claimableAssetOf(Address account, int assetChainId_, int assetId_) {
+        String key = assetKey(assetChainId_, assetId_);
+        AssetAccumulator asset = assets.get(key);
+        ShareholderRecord record = shareholders.get(account);
+        if(asset == null || record == null){
+            return BigInteger.ZERO;
+        }
+        return record.getAssetClaimable(key).add(pendingAssetFromAccumulator(record, key, asset));
+    }
 
-                // Emit event with the Stake event
-                emit(new RewardPaid(shareholdersList.get(i), individualProfits));
-            }
+    /**
+     * Returns the accumulated profits per weight point of a NRC20 token, scaled by 1e18
+     *
+     * @param token_ NRC20 token contract
+     * @return accumulated token profits per weight point
+     */
+    @View
+    public BigInteger getTokenRewardPerShare(Address token_) {
+        AssetAccumulator asset = assets.get(tokenKey(token_));
+        return asset == null ? BigInteger.ZERO : asset.getRewardPerShare();
+    }
 
-            allTimeRewards = allTimeRewards.add(profits);
+    /**
+     * Returns Shareholder profits of a NRC20 token already credited and not yet claimed
+     *
+     * @param account User address
+     * @param token_  NRC20 token contract
+     * @return claimable Shareholder token profits
+     */
+    @View
+    public BigInteger claimableTokenOf(Address account, Address token_) {
+        String key = tokenKey(token_);
+        AssetAccumulator asset = assets.get(key);
+        ShareholderRecord record = shareholders.get(account);
+        if(asset == null || record == null){
+            return BigInteger.ZERO;
         }
+        return record.getAssetClaimable(key).add(pendingAssetFromAccumulator(record, key, asset));
+    }
 
-        // Close Reentrancy Attacks Prevention
-        closeReentrant();
+    /**
+     * Returns the undistributed balance that triggers a distribution on deposit
+     *
+     * @return auto distribution threshold, 0 when disabled
+     */
+    @View
+    public BigInteger getAutoDistributeThreshold() {
+        return BigInteger.valueOf(autoDistributeThreshold);
     }
 
+    /**
+     * Returns the minimum number of blocks between two distributions
+     *
+     * @return distribution interval in blocks, 0 when unscheduled
+     */
+    @View
+    public long getDistributionInterval() {
+        return distributionInterval;
+    }
 
     /**
-     *  Add Shareholder Address
+     * Returns the block of the last scheduled distribution
      *
-     * @param admin_ Shareholder Address
+     * @return last distribution block
      */
-    public void addShareholder(Address admin_) {
+    @View
+    public long getLastDistributionBlock() {
+        return lastDistributionBlock;
+    }
 
-        onlyRewardDistribution();
+    /**
+     * Returns the first block at which the next distribution can run
+     *
+     * @return next distribution block
+     */
+    @View
+    public long getNextDistributionBlock() {
+        return lastDistributionBlock + distributionInterval;
+    }
 
-        require(admin_ != null, "Invalid Shareholder");
+    /**
+     * Returns the number of blocks over which deposits are released
+     *
+     * @return stream duration in blocks, 0 when streaming is disabled
+     */
+    @View
+    public long getStreamDuration() {
+        return streamDuration;
+    }
 
-        shareholder.put(admin_, true);
-        shareholdersList.add(admin_);
+    /**
+     * Returns the profits currently released per block
+     *
+     * @return stream rate in Nuls per block
+     */
+    @View
+    public BigInteger getStreamRate() {
+        BigInteger rate = streamRate;
+        for(long i = streamHead; i < streamTail && streamDepositEnd.get(i) <= Block.number(); i++) {
+            rate = rate.subtract(streamDepositRate.get(i));
+        }
+        return rate.divide(ACC_PRECISION);
     }
 
     /**
-     *  Remove Shareholder Address
+     * Returns the streamed profits not yet released
      *
-     * @param admin_ Shareholder Address
+     * @return profits left in the stream
      */
-    public void removeShareholder(Address admin_) {
+    @View
+    public BigInteger getStreamRemaining() {
+        return BigInteger.valueOf(streamReserved);
+    }
 
-        onlyRewardDistribution();
+    /**
+     * Returns the block at which the stream is fully released
+     *
+     * @return stream end block
+     */
+    @View
+    public long getStreamEnd() {
+        return streamEnd;
+    }
 
-        require(shareholder.get(admin_), "Not Shareholder");
+    /**
+     * Returns the current shareholder set epoch
+     *
+     * @return membership epoch
+     */
+    @View
+    public long getMembershipEpoch() {
+        return membershipEpoch;
+    }
 
-        shareholder.put(admin_, false);
-        shareholdersList.remove(admin_);
+    /**
+     * Returns the snapshot of a shareholder set epoch
+     *
+     * @param epoch_ Membership epoch
+     * @return epoch start block, total weight, shareholders and accumulator value at its start
+     */
+    @View
+    public String getMembershipEpochInfo(long epoch_) {
+        MembershipEpoch epoch = epochs.get(epoch_);
+        if(epoch == null) {
+            return null;
+        }
+        return "{\"startBlock\":" + epoch.getStartBlock() +
+                ",\"totalWeight\":" + epoch.getTotalWeight() +
+                ",\"shareholders\":" + epoch.getShareholders() +
+                ",\"rewardPerShare\":\"" + epoch.getRewardPerShare() + "\"}";
     }
 
+    /**
+     * Returns the names of the distribution pools
+     *
+     * @return comma separated pool names
+     */
+    @View
+    public String getPools() {
+        StringBuilder names = new StringBuilder();
+        for(int i = 0; i < poolNames.size(); i++) {
+            if(i > 0) {
+                names.append(",");
+            }
+            names.append(poolNames.get(i));
+        }
+        return names.toString();
+    }
 
-    /*===========================================
+    /**
+     * Returns the state of a distribution pool
+     *
+     * @param pool_ Pool name
+     * @return members, total weight, accumulator, owed, undistributed and all time rewards of the pool
+     */
+    @View
+    public String getPoolInfo(String pool_) {
+        ProfitPool pool = pools.get(pool_);
+        if(pool == null) {
+            return null;
+        }
+        return "{\"members\":" + pool.getMembers() +
+                ",\"totalWeight\":" + pool.getTotalWeight() +
+                ",\"rewardPerShare\":\"" + pool.getRewardPerShare() + "\"" +
+                ",\"owed\":\"" + pool.getOwed() + "\"" +
+                ",\"undistributed\":\"" + pool.getUndistributed() + "\"" +
+                ",\"allTimeRewards\":\"" + pool.getAllTimeRewards() + "\"}";
+    }
 
-      ADMIN STATE MODIFIABLE FUNCTIONS
+    /**
+     * Returns Pool member weight
+     *
+     * @param pool_   Pool name
+     * @param account User address
+     * @return pool member weight in basis points
+     */
+    @View
+    public int getPoolMemberWeight(String pool_, Address account) {
+        ProfitPool pool = pools.get(pool_);
+        PoolMember member = pool == null ? null : pool.getMember(account);
+        return member == null ? 0 : member.getWeight();
+    }
 
-     ===========================================*/
+    /**
+     * Returns Pool member profits already credited and not yet claimed
+     *
+     * @param pool_   Pool name
+     * @param account User address
+     * @return claimable pool profits
+     */
+    @View
+    public BigInteger poolClaimableOf(String pool_, Address account) {
+        ProfitPool pool = pools.get(pool_);
+        PoolMember member = pool == null ? null : pool.getMember(account);
+        if(member == null) {
+            return BigInteger.ZERO;
+        }
+        return BigInteger.valueOf(safeAdd(member.getClaimable(), pendingFromPool(pool, member)));
+    }
 
     /**
-     *  Set New Rewards Distribution/Admin Address
+     * Returns the number of shareholder tiers
      *
-     * @param _rewardDistribution new rewards distrbution/admin address
+     * @return number of tiers
      */
-    public void setRewardDistribution(Address _rewardDistribution) {
-        onlyRewardDistribution();
-        require(_rewardDistribution != null, "Reward Distribution not valid");
-        rewardDistribution = _rewardDistribution;
+    @View
+    public int getNumberOfTiers() {
+        return tiers.size();
     }
 
+    /**
+     * Returns the state of a shareholder tier
+     *
+     * @param tierId_ Tier id
+     * @return name, split, members and accumulator of the tier
+     */
+    @View
+    public String getTierInfo(int tierId_) {
+        if(tierId_ < 1 || tierId_ > tiers.size()) {
+            return null;
+        }
+        ShareholderTier tier = tiers.get(tierId_ - 1);
+        return "{\"name\":\"" + tier.getName() + "\"" +
+                ",\"split\":" + tier.getSplit() +
+                ",\"members\":" + tier.getMembers() +
+                ",\"rewardPerMember\":\"" + tier.getRewardPerMember() + "\"}";
+    }
 
     /**
-     * Recover Nuls funds lost in contract
+     * Returns Shareholder tier
+     *
+     * @param account User address
+     * @return tier id, 0 when not in a tier
      */
-    public void recoverNuls() {
-        //Only rewarder address can give reward
-        onlyRewardDistribution();
+    @View
+    public int getShareholderTier(Address account) {
+        ShareholderRecord record = shareholders.get(account);
+        return record == null ? 0 : record.getTier();
+    }
 
-        Msg.sender().transfer(Msg.address().balance());
+    /**
+     * Returns Claim Mode Status
+     *
+     * @return true if shareholders pull their profits through claim()
+     */
+    @View
+    public boolean getClaimMode() {
+        return claimMode;
+    }
+
+    /**
+     * Returns the accumulated profits per weight point, scaled by 1e18
+     *
+     * @return accumulated profits per weight point
+     */
+    @View
+    public BigInteger getRewardPerShare() {
+        return rewardPerShare;
+    }
+
+    /**
+     * Returns Shareholder profits already credited and not yet claimed
+     *
+     * @param account User address
+     * @return claimable Shareholder profits
+     */
+    @View
+    public BigInteger claimableOf(Address account) {
+        ShareholderRecord record = shareholders.get(account);
+        if(record == null){
+            return BigInteger.ZERO;
+        }
+        return BigInteger.valueOf(safeAdd(record.getClaimable(), pendingFromAccumulator(record)));
+    }
+
+    /**
+     * Returns the exact amount claim() would settle for the account now: settled balance
+     * and carried dust, accumulator profits, its unpaid share of an active round and, in
+     * claim mode, the profits the claim would credit first under the schedule and stream.
+     * claim() transfers it once it reaches the minimum transferable amount
+     *
+     * @param account User address
+     * @return pending Shareholder profits
+     */
+    @View
+    public BigInteger pendingRewards(Address account) {
+        ShareholderRecord record = shareholders.get(account);
+        if(record == null){
+            return BigInteger.ZERO;
+        }
+
+        return BigInteger.valueOf(pendingOf(record));
+    }
+
+    /**
+     * Returns All time Shareholder profits
+     *
+     * @param account User address
+     * @return all time Shareholder profits
+     */
+    @View
+    public BigInteger getShareholdersProfits(Address account) {
+        ShareholderRecord record = shareholders.get(account);
+        if(record == null){
+            return BigInteger.ZERO;
+        }
+        return BigInteger.valueOf(record.getEarned());
+    }
+
+    /**
+     * Returns All time and pending profits of several accounts in one call
+     *
+     * @param accounts_ An Array with the accounts Addresses, at most MAX_PAGE_SIZE
+     * @return all time and claimable profits of each account, in the given order
+     */
+    @View
+    public String getShareholdersProfitsBatch(String[] accounts_) {
+        require(accounts_ != null && accounts_.length > 0, "Empty batch");
+        require(accounts_.length <= MAX_PAGE_SIZE, "Batch too large");
+
+        StringBuilder profits = new StringBuilder("[");
+        for(int i = 0; i < accounts_.length; i++) {
+            ShareholderRecord record = shareholders.get(new Address(accounts_[i]));
+            long earned  = record == null ? 0 : record.getEarned();
+            long pending = record == null ? 0 : pendingOf(record);
+            if(i > 0) {
+                profits.append(",");
+            }
+            profits.append("{\"address\":\"").append(accounts_[i]).append("\"")
+                   .append(",\"earned\":\"").append(earned).append("\"")
+                   .append(",\"pending\":\"").append(pending).append("\"}");
+        }
+        profits.append("]");
+        return profits.toString();
+    }
+
+    /**
+     * Returns a page of the shareholders list with each member weight and all time profits
+     *
+     * @param offset_ Position of the first shareholder in the list
+     * @param limit_  Max number of shareholders returned, capped to MAX_PAGE_SIZE
+     * @return total number of shareholders and the requested page
+     */
+    @View
+    public String getShareholders(int offset_, int limit_) {
+        require(offset_ >= 0 && limit_ > 0, "Invalid page");
+
+        int size = shareholdersList.size();
+        int end  = offset_ + Math.min(limit_, MAX_PAGE_SIZE);
+        if(end > size) {
+            end = size;
+        }
+
+        StringBuilder page = new StringBuilder();
+        page.append("{\"total\":").append(size).append(",\"shareholders\":[");
+        for(int i = offset_; i < end; i++) {
+            Address account = shareholdersList.get(i);
+            ShareholderRecord record = shareholders.get(account);
+            if(i > offset_) {
+                page.append(",");
+            }
+            page.append("{\"address\":\"").append(account.toString()).append("\"")
+                .append(",\"weight\":").append(record.getWeight())
+                .append(",\"earned\":\"").append(record.getEarned()).append("\"}");
+        }
+        page.append("]}");
+        return page.toString();
+    }
+
+    /*===========================================
+
+      Modifiers
+
+     ===========================================*/
+
+    /**
+     * @dev Locks Contract in order to prevent reentrancy attacks
+     * */
+    protected void nonReentrant(){
+        require(!locked, "Already Entered");
+        locked = true;
+    }
+
+    /**
+     * @dev Unlocks Contract after vulnerable operations are made
+     * */
+    protected void closeReentrant(){
+        require(locked, "Not Entered");
+        locked = false;
+    }
+
+    /**
+     * @dev Only allow Rewards Distribution Address to call function
+     * */
+    private void onlyRewardDistribution() {
+        require(Msg.sender().equals(rewardDistribution), "Caller is not reward distribution");
+    }
+
+    /*===========================================
+
+      NON-ADMIN STATE MODIFIABLE FUNCTIONS
+
+     ===========================================*/
+
+    /**
+     *  Receives Nuls profits. In claim mode, once the undistributed balance
+     *  reaches the auto distribution threshold it is credited to the
+     *  accumulator in the same transaction
+     */
+    @Override
+    @Payable
+    public void _payable() {
+
+        if(!claimMode || locked || autoDistributeThreshold == 0) {
+            return;
+        }
+
+        if(undistributedBalance() >= autoDistributeThreshold) {
+            scheduledRewardPerShareUpdate();
+        }
+    }
+
+    /**
+     *  Receives cross-chain asset profits and credits them to the asset accumulator in O(1)
+     */
+    @Override
+    @PayableMultyAsset
+    public void _payableMultyAsset() {
+
+        MultyAssetValue[] values = Msg.multyAssetValues();
+        if(values == null) {
+            return;
+        }
+
+        for(int i = 0; i < values.length; i++) {
+            AssetAccumulator asset = assetOf(values[i].getAssetChainId(), values[i].getAssetId());
+            creditAsset(assetKey(values[i].getAssetChainId(), values[i].getAssetId()), asset, values[i].getValue());
+        }
+    }
+
+    /**
+     *  Distributes accumulated profits through holders
+     *
+     *  Pays as many shareholders as the supplied gas allows and saves the
+     *  round cursor before running out of gas, so the next call resumes it.
+     *
+     *  In claim mode profits are only credited to the reward per share
+     *  accumulator and each shareholder withdraws them through claim()
+     */
+    public void profitDistribution() {
+
+        require(initialized, "Not yet initialized");
+
+        // Prevent Reentrancy Attacks
+        nonReentrant();
+
+        if(claimMode) {
+            scheduledRewardPerShareUpdate();
+            closeReentrant();
+            return;
+        }
+
+        if(roundActive || (distributionDue() && startRound())) {
+            payRound(shareholdersList.size());
+        }
+
+        // Close Reentrancy Attacks Prevention
+        closeReentrant();
+    }
+
+    /**
+     *  Pays the next slice of the current distribution round,
+     *  starting a new round if none is in progress
+     *
+     * @param maxCount Maximum number of shareholders to pay in this call
+     */
+    public void distributeBatch(int maxCount) {
+
+        require(initialized, "Not yet initialized");
+        require(!claimMode, "Claim mode enabled");
+        require(maxCount > 0, "Invalid batch size");
+
+        // Prevent Reentrancy Attacks
+        nonReentrant();
+
+        if(roundActive || (distributionDue() && startRound())) {
+            payRound(maxCount);
+        }
+
+        // Close Reentrancy Attacks Prevention
+        closeReentrant();
+    }
+
+
+    /**
+     *  Claims the profits credited to the caller, including its unpaid share of an active round
+     */
+    public void claim() {
+
+        require(initialized, "Not yet initialized");
+
+        // Prevent Reentrancy Attacks
+        nonReentrant();
+
+        if(claimMode) {
+            scheduledRewardPerShareUpdate();
+        }
+
+        Address account = Msg.sender();
+        ShareholderRecord record = shareholders.get(account);
+        require(record != null, "Nothing to claim");
+
+        // An unpaid share of the active round is claimed too
+        if(roundActive) {
+            settleRoundShare(record);
+        }
+        settleShareholder(record);
+
+        long amount = record.getClaimable();
+        require(amount > 0, "Nothing to claim");
+        require(amount >= MIN_NULS_AMOUNT, "Claimable amount below minimum transferable");
+
+        payClaimable(account, record);
+
+        // Close Reentrancy Attacks Prevention
+        closeReentrant();
+    }
+
+    /**
+     *  Claims the Nuls and every asset profits credited to the caller in one call
+     */
+    public void claimAll() {
+
+        require(initialized, "Not yet initialized");
+
+        // Prevent Reentrancy Attacks
+        nonReentrant();
+
+        if(claimMode) {
+            scheduledRewardPerShareUpdate();
+        }
+
+        Address account = Msg.sender();
+        ShareholderRecord record = shareholders.get(account);
+        require(record != null, "Nothing to claim");
+
+        // An unpaid share of the active round is claimed too
+        if(roundActive) {
+            settleRoundShare(record);
+        }
+        settleShareholder(record);
+
+        boolean paid = false;
+
+        if(record.getClaimable() >= MIN_NULS_AMOUNT) {
+            payClaimable(account, record);
+            paid = true;
+        }
+
+        for(int i = 0; i < assetKeys.size(); i++) {
+            if(payAsset(account, record, assetKeys.get(i))) {
+                paid = true;
+            }
+        }
+
+        require(paid, "Nothing to claim");
+
+        // Close Reentrancy Attacks Prevention
+        closeReentrant();
+    }
+
+    /**
+     *  Deposits profits into a distribution pool, crediting its accumulator in O(1)
+     *
+     * @param pool_ Pool name
+     */
+    @Payable
+    public void depositToPool(String pool_) {
+
+        ProfitPool pool = poolOf(pool_);
+        long amount = toLong(Msg.value());
+        require(amount > 0, "Invalid amount");
+
+        poolsReserved = safeAdd(poolsReserved, amount);
+        creditPool(pool, amount);
+    }
+
+    /**
+     *  Claims the profits credited to the caller in several pools with a single transfer
+     *
+     * @param pools_ Pool names
+     */
+    public void claimPools(String[] pools_) {
+
+        require(pools_ != null && pools_.length > 0, "No pools");
+
+        // Prevent Reentrancy Attacks
+        nonReentrant();
+
+        Address account = Msg.sender();
+        long amount = 0;
+
+        for(int i = 0; i < pools_.length; i++) {
+            ProfitPool pool = poolOf(pools_[i]);
+            PoolMember member = pool.getMember(account);
+            if(member == null) {
+                continue;
+            }
+
+            settlePoolMember(pool, member);
+
+            long claimable = member.getClaimable();
+            if(claimable == 0) {
+                continue;
+            }
+
+            member.setClaimable(0);
+            member.setEarned(safeAdd(member.getEarned(), claimable));
+            pool.setOwed(safeSub(pool.getOwed(), claimable));
+            amount = safeAdd(amount, claimable);
+        }
+
+        require(amount > 0, "Nothing to claim");
+        require(amount >= MIN_NULS_AMOUNT, "Claimable amount below minimum transferable");
+
+        poolsReserved = safeSub(poolsReserved, amount);
+        totalClaimed  = safeAdd(totalClaimed, amount);
+
+        account.transfer(BigInteger.valueOf(amount));
+
+        emit(new RewardPaid(account, BigInteger.valueOf(amount)));
+
+        // Close Reentrancy Attacks Prevention
+        closeReentrant();
+    }
+
+    /**
+     *  Claims the NRC20 token profits credited to the caller with a single token transfer
+     *
+     * @param token_ NRC20 token contract
+     */
+    public void claimToken(Address token_) {
+
+        require(initialized, "Not yet initialized");
+
+        String key = tokenKey(token_);
+        require(assets.get(key) != null, "Unknown profit token");
+
+        ShareholderRecord record = shareholders.get(Msg.sender());
+        require(record != null, "Nothing to claim");
+
+        // Prevent Reentrancy Attacks
+        nonReentrant();
+
+        require(payAsset(Msg.sender(), record, key), "Nothing to claim");
+
+        // Close Reentrancy Attacks Prevention
+        closeReentrant();
+    }
+
+    /**
+     *  Credits the NRC20 tokens received since the last notification to the token accumulator in O(1)
+     *
+     * @param token_ NRC20 token contract
+     */
+    public void notifyTokenProfits(Address token_) {
+
+        String key = tokenKey(token_);
+        AssetAccumulator asset = assets.get(key);
+        require(asset != null, "Unknown profit token");
+
+        String balance = token_.callWithReturnValue("balanceOf", null, new String[][]{{Msg.address().toString()}}, BigInteger.ZERO);
+
+        // Tokens held but not yet owed or pending are new profits
+        BigInteger received = new BigInteger(balance).subtract(asset.getOwed()).subtract(asset.getUndistributed());
+        if(received.compareTo(BigInteger.ZERO) > 0) {
+            creditAsset(key, asset, received);
+        }
+    }
+
+    /**
+     *  Claims profits of a Merkle distribution epoch
+     *
+     *  Leaves are sha3(index + ":" + account + ":" + amount) and each proof
+     *  node is hashed with the current value as sha3(lower + higher), both
+     *  in lowercase hex. Leaves below the minimum transferable amount
+     *  (0.01 Nuls) can never be claimed
+     *
+     * @param epoch_   Merkle distribution epoch
+     * @param index_   Leaf index
+     * @param account_ Shareholder Address receiving the profits
+     * @param amount_  Profits of the leaf
+     * @param proof_   Sibling hashes from the leaf up to the root
+     */
+    public void claimMerkle(long epoch_, int index_, Address account_, BigInteger amount_, String[] proof_) {
+
+        String root = merkleRoots.get(epoch_);
+        require(root != null, "Unknown Merkle epoch");
+        require(index_ >= 0, "Invalid index");
+        require(account_ != null, "Invalid account");
+        require(!isMerkleClaimed(epoch_, index_), "Already claimed");
+        require(amount_ != null, "Invalid amount");
+
+        String node = Utils.sha3(index_ + ":" + account_ + ":" + amount_);
+        for(int i = 0; i < proof_.length; i++) {
+            String sibling = proof_[i].toLowerCase();
+            node = node.compareTo(sibling) <= 0 ? Utils.sha3(node + sibling) : Utils.sha3(sibling + node);
+        }
+        require(root.equals(node), "Invalid Merkle proof");
+
+        long amount    = toLong(amount_);
+        long remaining = merkleRemainingOf(epoch_);
+        require(amount >= MIN_NULS_AMOUNT, "Claimable amount below minimum transferable");
+        require(remaining >= amount, "Merkle epoch exhausted");
+
+        // Prevent Reentrancy Attacks
+        nonReentrant();
+
+        String wordKey = merkleWordKey(epoch_, index_);
+        Long word = merkleClaimed.get(wordKey);
+        merkleClaimed.put(wordKey, (word == null ? 0L : word) | (1L << (index_ % 64)));
+
+        merkleRemaining.put(epoch_, remaining - amount);
+        merkleReserved = safeSub(merkleReserved, amount);
+        allTimeRewards = safeAdd(allTimeRewards, amount);
+        totalClaimed   = safeAdd(totalClaimed, amount);
+
+        // Claimants are not stored, only existing shareholders track their Merkle earnings
+        ShareholderRecord record = shareholders.get(account_);
+        if(record != null) {
+            record.setEarned(safeAdd(record.getEarned(), amount));
+        }
+
+        account_.transfer(amount_);
+
+        emit(new RewardPaid(account_, amount_));
+
+        // Close Reentrancy Attacks Prevention
+        closeReentrant();
+    }
+
+    /**
+     *  Add Shareholder Address with a single share
+     *
+     * @param admin_ Shareholder Address
+     */
+    public void addShareholder(Address admin_) {
+        addWeightedShareholder(admin_, DEFAULT_WEIGHT);
+    }
+
+    /**
+     *  Add Shareholder Address with a custom weight
+     *
+     * @param admin_  Shareholder Address
+     * @param weight_ Shareholder weight in basis points
+     */
+    public void addWeightedShareholder(Address admin_, int weight_) {
+
+        onlyRewardDistribution();
+
+        closeEpoch();
+
+        registerShareholder(admin_, weight_);
+
+        startEpoch();
+    }
+
+    /**
+     *  Change Shareholder weight
+     *
+     * @param admin_  Shareholder Address
+     * @param weight_ New shareholder weight in basis points
+     */
+    public void setShareholderWeight(Address admin_, int weight_) {
+
+        onlyRewardDistribution();
+
+        ShareholderRecord record = shareholders.get(admin_);
+        require(record != null && record.isActive(), "Not Shareholder");
+        require(weight_ > 0, "Invalid Weight");
+        require(record.getTier() == 0, "Tier member");
+
+        closeEpoch();
+
+        settleAccount(record);
+
+        totalWeight = totalWeight - record.getWeight() + weight_;
+        record.setWeight(weight_);
+
+        startEpoch();
+    }
+
+    /**
+     *  Remove Shareholder Address
+     *
+     * @param admin_ Shareholder Address
+     */
+    public void removeShareholder(Address admin_) {
+
+        onlyRewardDistribution();
+
+        ShareholderRecord record = shareholders.get(admin_);
+        require(record != null && record.isActive(), "Not Shareholder");
+
+        closeEpoch();
+
+        unregisterShareholder(record);
+
+        startEpoch();
+    }
+
+    /**
+     *  Add several Shareholders with a single share in one transaction
+     *
+     * @param shareholders_ An Array with the new shareholders Addresses
+     */
+    public void addShareholders(String[] shareholders_) {
+
+        onlyRewardDistribution();
+
+        Address[] accounts = validateBatch(shareholders_, false);
+
+        closeEpoch();
+
+        for(int i = 0; i < accounts.length; i++) {
+            registerShareholder(accounts[i], DEFAULT_WEIGHT);
+        }
+
+        startEpoch();
+    }
+
+    /**
+     *  Remove several Shareholders in one transaction
+     *
+     * @param shareholders_ An Array with the shareholders Addresses to remove
+     */
+    public void removeShareholders(String[] shareholders_) {
+
+        onlyRewardDistribution();
+
+        Address[] accounts = validateBatch(shareholders_, true);
+
+        closeEpoch();
+
+        for(int i = 0; i < accounts.length; i++) {
+            unregisterShareholder(shareholders.get(accounts[i]));
+        }
+
+        startEpoch();
+    }
+
+
+    /*===========================================
+
+      ADMIN STATE MODIFIABLE FUNCTIONS
+
+     ===========================================*/
+
+    /**
+     *  Register a NRC20 token whose received balance is distributed to shareholders
+     *
+     * @param token_ NRC20 token contract
+     */
+    public void addProfitToken(Address token_) {
+        onlyRewardDistribution();
+        require(token_ != null && token_.isContract(), "Invalid token");
+
+        String key = tokenKey(token_);
+        require(assets.get(key) == null, "Token already registered");
+
+        assets.put(key, new AssetAccumulator(token_));
+        assetKeys.add(key);
+    }
+
+    /**
+     *  Create a new distribution pool
+     *
+     * @param pool_ Pool name
+     */
+    public void createPool(String pool_) {
+        onlyRewardDistribution();
+        require(pool_ != null && pool_.length() > 0 && pool_.indexOf(',') < 0, "Invalid pool name");
+        require(pools.get(pool_) == null, "Pool already exists");
+
+        pools.put(pool_, new ProfitPool(pool_));
+        poolNames.add(pool_);
+    }
+
+    /**
+     *  Add or re-weight a member of a distribution pool
+     *
+     * @param pool_    Pool name
+     * @param account_ Member Address
+     * @param weight_  Member weight in basis points, 0 removes the member
+     */
+    public void setPoolMember(String pool_, Address account_, int weight_) {
+        onlyRewardDistribution();
+        require(account_ != null, "Invalid member");
+        require(weight_ >= 0, "Invalid Weight");
+
+        ProfitPool pool = poolOf(pool_);
+        PoolMember member = pool.memberOf(account_);
+
+        // Credit pending pool profits to the current members before the set changes
+        creditPool(pool, 0);
+        settlePoolMember(pool, member);
+
+        if(member.getWeight() == 0 && weight_ > 0) {
+            pool.setMembers(pool.getMembers() + 1);
+        } else if(member.getWeight() > 0 && weight_ == 0) {
+            pool.setMembers(pool.getMembers() - 1);
+        }
+
+        pool.setTotalWeight(pool.getTotalWeight() - member.getWeight() + weight_);
+        member.setWeight(weight_);
+    }
+
+    /**
+     *  Create a shareholder tier receiving a fixed split of the profits
+     *
+     * @param name_  Tier name
+     * @param split_ Share of the profits in basis points
+     */
+    public void createTier(String name_, int split_) {
+        onlyRewardDistribution();
+        require(name_ != null && name_.length() > 0, "Invalid tier name");
+        require(split_ >= 0 && totalTierSplit + split_ <= BASIS_POINTS, "Invalid split");
+
+        tiers.add(new ShareholderTier(name_, split_));
+        totalTierSplit += split_;
+    }
+
+    /**
+     *  Change the split of a shareholder tier
+     *
+     * @param tierId_ Tier id
+     * @param split_  New share of the profits in basis points
+     */
+    public void setTierSplit(int tierId_, int split_) {
+        onlyRewardDistribution();
+
+        ShareholderTier tier = tierOf(tierId_);
+        require(split_ >= 0 && totalTierSplit - tier.getSplit() + split_ <= BASIS_POINTS, "Invalid split");
+
+        // Pending profits are credited with the previous split
+        closeEpoch();
+
+        totalTierSplit = totalTierSplit - tier.getSplit() + split_;
+        tier.setSplit(split_);
+
+        startEpoch();
+    }
+
+    /**
+     *  Move a Shareholder to another tier in O(1)
+     *
+     *  Tier members are paid by their tier split only, in Nuls and in every
+     *  profit asset, and hold no weight. Leaving the tiers gives the
+     *  Shareholder back the weight it held before joining
+     *
+     * @param admin_  Shareholder Address
+     * @param tierId_ New tier id, 0 to leave the tiers
+     */
+    public void setShareholderTier(Address admin_, int tierId_) {
+        onlyRewardDistribution();
+
+        ShareholderRecord record = shareholders.get(admin_);
+        require(record != null && record.isActive(), "Not Shareholder");
+        require(tierId_ == 0 || (tierId_ >= 1 && tierId_ <= tiers.size()), "Unknown tier");
+
+        closeEpoch();
+
+        settleAccount(record);
+
+        int previousTier = record.getTier();
+        leaveTier(record);
+        joinTier(record, tierId_);
+
+        if(tierId_ > 0 && previousTier == 0) {
+            record.setWeightBeforeTier(record.getWeight());
+            totalWeight -= record.getWeight();
+            record.setWeight(0);
+        } else if(tierId_ == 0 && previousTier > 0) {
+            record.setWeight(record.getWeightBeforeTier());
+            totalWeight += record.getWeight();
+        }
+
+        startEpoch();
+    }
+
+    /**
+     *  Set New Rewards Distribution/Admin Address
+     *
+     * @param _rewardDistribution new rewards distrbution/admin address
+     */
+    public void setRewardDistribution(Address _rewardDistribution) {
+        onlyRewardDistribution();
+        require(_rewardDistribution != null, "Reward Distribution not valid");
+        rewardDistribution = _rewardDistribution;
+    }
+
+
+    /**
+     *  Set the undistributed balance that triggers a distribution on deposit in claim mode
+     *
+     * @param threshold_ auto distribution threshold, 0 to disable it
+     */
+    public void setAutoDistributeThreshold(BigInteger threshold_) {
+        onlyRewardDistribution();
+        require(threshold_ != null && threshold_.compareTo(BigInteger.ZERO) >= 0, "Invalid threshold");
+        autoDistributeThreshold = toLong(threshold_);
+    }
+
+    /**
+     *  Set the minimum number of blocks between two distributions.
+     *  Deposits in between stay in the undistributed balance until the next window
+     *
+     * @param interval_ distribution interval in blocks, 0 to disable the schedule
+     */
+    public void setDistributionInterval(long interval_) {
+        onlyRewardDistribution();
+        require(interval_ >= 0, "Invalid interval");
+        distributionInterval = interval_;
+    }
+
+    /**
+     *  Set the number of blocks over which each deposit is released linearly in claim mode.
+     *  Profits still in the stream are spread over the new duration
+     *
+     * @param duration_ stream duration in blocks, 0 to disable streaming
+     */
+    public void setStreamDuration(long duration_) {
+        onlyRewardDistribution();
+        require(duration_ >= 0, "Invalid duration");
+        require(claimMode || duration_ == 0, "Claim mode disabled");
+
+        if(streamDuration > 0) {
+            releaseStream();
+        }
+
+        long remaining = streamReserved;
+
+        // Unreleased profits go back to the undistributed balance, or are spread again
+        streamDuration = duration_;
+        streamReserved = 0;
+        streamRate     = BigInteger.ZERO;
+        streamEnd      = 0;
+
+        for(long i = streamHead; i < streamTail; i++) {
+            streamDepositEnd.remove(i);
+            streamDepositRate.remove(i);
+        }
+        streamHead = streamTail;
+
+        if(duration_ > 0) {
+            streamProfits(remaining);
+        }
+    }
+
+    /**
+     *  Switch between one RewardPaid event per payment and one DistributionCompleted event per round
+     *
+     * @param compactEvents_ true to emit a single summary event per round
+     */
+    public void setCompactEvents(boolean compactEvents_) {
+        onlyRewardDistribution();
+        compactEvents = compactEvents_;
+    }
+
+    /**
+     *  Set the gas left aside by distribution calls to save their cursor
+     *
+     * @param gasSafetyMargin_ new gas safety margin
+     */
+    public void setGasSafetyMargin(long gasSafetyMargin_) {
+        onlyRewardDistribution();
+        require(gasSafetyMargin_ > 0, "Invalid gas safety margin");
+        gasSafetyMargin = gasSafetyMargin_;
+    }
+
+    /**
+     *  Switch between pushing profits to shareholders and letting them claim
+     *
+     * @param claimMode_ true to credit profits to the accumulator instead of transferring them
+     */
+    public void setClaimMode(boolean claimMode_) {
+        onlyRewardDistribution();
+        require(!roundActive, "Distribution round in progress");
+        require(claimMode_ || streamDuration == 0, "Streaming enabled");
+
+        // Credit pending profits to the current holders before leaving claim mode
+        if(claimMode && !claimMode_) {
+            updateRewardPerShare();
+        }
+
+        claimMode = claimMode_;
+    }
+
+    /**
+     *  Publish the Merkle root of a new distribution epoch, reserving its profits
+     *
+     *  Every leaf must be worth at least the minimum transferable amount
+     *  (0.01 Nuls), smaller leaves stay reserved until the epoch is closed
+     *
+     * @param root_   Merkle root in hex
+     * @param amount_ Total profits claimable in the epoch
+     */
+    public void publishMerkleRoot(String root_, BigInteger amount_) {
+        onlyRewardDistribution();
+        require(root_ != null && root_.length() > 0, "Invalid Merkle root");
+        require(amount_ != null && amount_.compareTo(BigInteger.ZERO) > 0, "Invalid amount");
+
+        long amount = toLong(amount_);
+        require(amount <= undistributedBalance(), "Not enough undistributed profits");
+
+        merkleEpoch++;
+        merkleRoots.put(merkleEpoch, root_.toLowerCase());
+        merkleRemaining.put(merkleEpoch, amount);
+        merkleReserved = safeAdd(merkleReserved, amount);
+
+        emit(new MerkleRootPublished(merkleEpoch, root_.toLowerCase(), amount_));
+    }
+
+    /**
+     *  Close a Merkle distribution epoch, releasing its unclaimed profits
+     *
+     *  This is how unclaimed leaves, including those below the minimum
+     *  transferable amount, return to the undistributed balance
+     *
+     * @param epoch_ Merkle distribution epoch
+     */
+    public void closeMerkleEpoch(long epoch_) {
+        onlyRewardDistribution();
+        require(merkleRoots.get(epoch_) != null, "Unknown Merkle epoch");
+
+        merkleReserved = safeSub(merkleReserved, merkleRemainingOf(epoch_));
+        merkleRoots.remove(epoch_);
+        merkleRemaining.remove(epoch_);
+    }
+
+    /**
+     * Recover Nuls funds lost in contract
+     *
+     * Profits already credited to shareholders are kept for their claims
+     */
+    public void recoverNuls() {
+        //Only rewarder address can give reward
+        onlyRewardDistribution();
+
+        Msg.sender().transfer(BigInteger.valueOf(undistributedBalance()));
+    }
+
+    /*===========================================
+
+      INTERNAL FUNCTIONS
+
+     ===========================================*/
+
+    /**
+     * @dev Contract balance that was not yet credited to shareholders
+     * */
+    private long undistributedBalance() {
+        long reserved = safeAdd(safeAdd(totalPending(), streamReserved), heldProfits);
+        long balance  = toLong(Msg.address().balance()) - reserved;
+        return balance > 0 ? balance : 0;
+    }
+
+    /**
+     * @dev Profits owed to shareholders and not yet transferred
+     * */
+    private long totalPending() {
+        return safeAdd(safeAdd(safeAdd(totalOwed, roundReserved), merkleReserved), poolsReserved);
+    }
+
+    /**
+     * @dev Credits the undistributed balance to the reward per share accumulator in O(1).
+     *      When streaming, the undistributed balance is added to the stream instead and
+     *      only the profits released since the last update are credited.
+     * */
+    private void updateRewardPerShare() {
+
+        if(streamDuration > 0) {
+            releaseStream();
+            streamProfits(undistributedBalance());
+            return;
+        }
+
+        creditRewardPerShare(undistributedBalance());
+    }
+
+    /**
+     * @dev Credits profits to the reward per share accumulator
+     * */
+    private void creditRewardPerShare(long profits) {
+
+        if(totalWeight == 0 && tieredShareholders == 0) {
+            return;
+        }
+
+        if(totalWeight > 0 && BigInteger.valueOf(profits).multiply(ACC_PRECISION).compareTo(BigInteger.valueOf(totalWeight)) < 0) {
+            carriedForward = profits;
+            return;
+        }
+
+        // Tiers take their fixed split first, the rest is shared by weight
+        profits = profits - creditTiers(profits);
+
+        if(totalWeight == 0) {
+            // Nobody holds weight, the weighted share is held for the next weighted holders
+            heldProfits = safeAdd(heldProfits, profits);
+            return;
+        }
+
+        creditWeighted(profits);
+    }
+
+    /**
+     * @dev Credits profits to the reward per share accumulator of the weighted shareholders
+     * */
+    private void creditWeighted(long profits) {
+
+        BigInteger totalShares = BigInteger.valueOf(totalWeight);
+        BigInteger increment   = BigInteger.valueOf(profits).multiply(ACC_PRECISION).divide(totalShares);
+        if(increment.compareTo(BigInteger.ZERO) == 0) {
+            carriedForward = profits;
+            return;
+        }
+
+        long owed = toLong(creditedAmount(increment, totalShares));
+
+        rewardPerShare  = rewardPerShare.add(increment);
+        totalOwed       = safeAdd(totalOwed, owed);
+        allTimeRewards  = safeAdd(allTimeRewards, owed);
+        unpushedProfits = safeAdd(unpushedProfits, owed);
+        carriedForward  = profits - owed;
+    }
+
+    /**
+     * @dev Credits the split of every tier with members to the tier accumulators, O(number of tiers).
+     *      The split of empty tiers stays with the weighted shareholders.
+     *
+     * @return profits credited to tiers
+     * */
+    private long creditTiers(long profits) {
+
+        long credited = 0;
+
+        for(int i = 0; i < tiers.size(); i++) {
+            ShareholderTier tier = tiers.get(i);
+            if(tier.getMembers() == 0 || tier.getSplit() == 0) {
+                continue;
+            }
+
+            BigInteger members   = BigInteger.valueOf(tier.getMembers());
+            BigInteger increment = BigInteger.valueOf(mulDiv(profits, tier.getSplit(), BASIS_POINTS)).multiply(ACC_PRECISION).divide(members);
+            if(increment.compareTo(BigInteger.ZERO) == 0) {
+                continue;
+            }
+
+            tier.setRewardPerMember(tier.getRewardPerMember().add(increment));
+            credited = safeAdd(credited, toLong(creditedAmount(increment, members)));
+        }
+
+        totalOwed       = safeAdd(totalOwed, credited);
+        allTimeRewards  = safeAdd(allTimeRewards, credited);
+        unpushedProfits = safeAdd(unpushedProfits, credited);
+        return credited;
+    }
+
+    /**
+     * @dev Checkpoints the account at the tier accumulators, O(number of assets)
+     * */
+    private void joinTier(ShareholderRecord record, int tierId) {
+        record.setTier(tierId);
+        if(tierId > 0) {
+            ShareholderTier tier = tierOf(tierId);
+            tier.setMembers(tier.getMembers() + 1);
+            tieredShareholders++;
+            record.setTierRewardPaid(tier.getRewardPerMember());
+            for(int i = 0; i < assetKeys.size(); i++) {
+                String key = assetKeys.get(i);
+                record.setAssetTierRewardPaid(key, tier.getAssetRewardPerMember(key));
+            }
+        }
+    }
+
+    private void leaveTier(ShareholderRecord record) {
+        if(record.getTier() > 0) {
+            ShareholderTier tier = tierOf(record.getTier());
+            tier.setMembers(tier.getMembers() - 1);
+            tieredShareholders--;
+            record.setTier(0);
+        }
+    }
+
+    private ShareholderTier tierOf(int tierId) {
+        require(tierId >= 1 && tierId <= tiers.size(), "Unknown tier");
+        return tiers.get(tierId - 1);
+    }
+
+    /**
+     * @dev Credits the pending profits to the shareholder set of the ending epoch, in any mode,
+     *      so profits received before a membership change are never paid to the new set
+     * */
+    private void closeEpoch() {
+        updateRewardPerShare();
+    }
+
+    /**
+     * @dev Records the new shareholder set and the accumulator value it starts from
+     * */
+    private void startEpoch() {
+        membershipEpoch++;
+        epochs.put(membershipEpoch, new MembershipEpoch(Block.number(), totalWeight, shareholdersList.size(), rewardPerShare));
+
+        // Profits held while nobody held weight go to the first weighted holders
+        if(heldProfits > 0 && totalWeight > 0) {
+            long held = heldProfits;
+            heldProfits = 0;
+            creditWeighted(held);
+        }
+    }
+
+    /**
+     * @dev Credits deposited pool profits, plus any previous remainder, to the pool accumulator
+     * */
+    private void creditPool(ProfitPool pool, long amount) {
+
+        long profits = safeAdd(pool.getUndistributed(), amount);
+        pool.setUndistributed(profits);
+
+        if(pool.getTotalWeight() == 0) {
+            return;
+        }
+
+        BigInteger totalShares = BigInteger.valueOf(pool.getTotalWeight());
+        BigInteger increment   = BigInteger.valueOf(profits).multiply(ACC_PRECISION).divide(totalShares);
+        if(increment.compareTo(BigInteger.ZERO) == 0) {
+            return;
+        }
+
+        long owed = toLong(creditedAmount(increment, totalShares));
+
+        pool.setRewardPerShare(pool.getRewardPerShare().add(increment));
+        pool.setOwed(safeAdd(pool.getOwed(), owed));
+        pool.setAllTimeRewards(safeAdd(pool.getAllTimeRewards(), owed));
+        pool.setUndistributed(profits - owed);
+    }
+
+    /**
+     * @dev Pool profits accrued by the member since its last checkpoint
+     * */
+    private long pendingFromPool(ProfitPool pool, PoolMember member) {
+        BigInteger weight = BigInteger.valueOf(member.getWeight());
+        return toLong(weight.multiply(pool.getRewardPerShare().subtract(member.getRewardPerSharePaid())).divide(ACC_PRECISION));
+    }
+
+    private void settlePoolMember(ProfitPool pool, PoolMember member) {
+        long pending = pendingFromPool(pool, member);
+        if(pending > 0) {
+            member.setClaimable(safeAdd(member.getClaimable(), pending));
+        }
+        member.setRewardPerSharePaid(pool.getRewardPerShare());
+    }
+
+    private ProfitPool poolOf(String name) {
+        ProfitPool pool = pools.get(name);
+        require(pool != null, "Unknown pool");
+        return pool;
+    }
+
+    /**
+     * @dev Profits a claim would settle for the account now, shared by the pending views.
+     *      In claim mode the accrual run by the claim is replayed first, mirroring
+     *      creditRewardPerShare, without changing any state
+     * */
+    private long pendingOf(ShareholderRecord record) {
+
+        long pending = record.getClaimable();
+        if(!record.isActive()) {
+            return pending;
+        }
+
+        // Increments the next claim would add to the weight and tier accumulators
+        long profits = 0;
+        if(claimMode && (totalWeight > 0 || tieredShareholders > 0)) {
+            profits = accruableProfits();
+
+            // Nothing is credited when the weighted increment rounds down to zero
+            if(totalWeight > 0 && BigInteger.valueOf(profits).multiply(ACC_PRECISION).compareTo(BigInteger.valueOf(totalWeight)) < 0) {
+                profits = 0;
+            }
+        }
+
+        BigInteger weightIncrement = BigInteger.ZERO;
+        BigInteger tierIncrement   = BigInteger.ZERO;
+        long tiered = 0;
+
+        for(int i = 0; i < tiers.size() && profits > 0; i++) {
+            ShareholderTier tier = tiers.get(i);
+            if(tier.getMembers() == 0 || tier.getSplit() == 0) {
+                continue;
+            }
+            BigInteger members   = BigInteger.valueOf(tier.getMembers());
+            BigInteger increment = BigInteger.valueOf(mulDiv(profits, tier.getSplit(), BASIS_POINTS)).multiply(ACC_PRECISION).divide(members);
+            tiered = safeAdd(tiered, toLong(creditedAmount(increment, members)));
+            if(record.getTier() == i + 1) {
+                tierIncrement = increment;
+            }
+        }
+        if(profits > 0 && totalWeight > 0) {
+            weightIncrement = BigInteger.valueOf(profits - tiered).multiply(ACC_PRECISION).divide(BigInteger.valueOf(totalWeight));
+        }
+
+        BigInteger weight = BigInteger.valueOf(record.getWeight());
+        BigInteger weightReward = rewardPerShare.add(weightIncrement).subtract(record.getRewardPerSharePaid());
+        pending = safeAdd(pending, toLong(weight.multiply(weightReward).divide(ACC_PRECISION)));
+
+        if(record.getTier() > 0) {
+            BigInteger tierReward = tierOf(record.getTier()).getRewardPerMember().add(tierIncrement).subtract(record.getTierRewardPaid());
+            pending = safeAdd(pending, toLong(tierReward.divide(ACC_PRECISION)));
+        }
+
+        if(roundActive && record.getIndex() >= roundCursor && record.getIndex() < roundEnd) {
+            pending = safeAdd(pending, roundShareOf(record));
+        }
+
+        return pending;
+    }
+
+    /**
+     * @dev Profits scheduledRewardPerShareUpdate would credit now, without changing any state
+     * */
+    private long accruableProfits() {
+
+        if(streamDuration == 0) {
+            return distributionDue() ? undistributedBalance() : 0;
+        }
+
+        // Profits added to the stream now are released over the following blocks
+        long to = Block.number() < streamEnd ? Block.number() : streamEnd;
+        return streamReleasedUntil(to);
+    }
+
+    /**
+     * @dev Whether the distribution window of the schedule is open
+     * */
+    private boolean distributionDue() {
+        return distributionInterval == 0 || Block.number() >= lastDistributionBlock + distributionInterval;
+    }
+
+    /**
+     * @dev Credits the undistributed balance to the accumulator at most once per distribution window
+     * */
+    private void scheduledRewardPerShareUpdate() {
+        if(distributionDue()) {
+            updateRewardPerShare();
+            lastDistributionBlock = Block.number();
+        } else if(streamDuration > 0) {
+            releaseStream();
+        }
+    }
+
+    /**
+     * @dev Credits the streamed profits released since the last update, O(1) in the elapsed blocks
+     * */
+    private void releaseStream() {
+
+        long to = Block.number() < streamEnd ? Block.number() : streamEnd;
+        if(to <= streamLastBlock) {
+            return;
+        }
+
+        long released = streamReleasedUntil(to);
+
+        // Fully released deposits stop adding their rate, each deposit leaves the queue once
+        while(streamHead < streamTail && streamDepositEnd.get(streamHead) <= to) {
+            streamRate = streamRate.subtract(streamDepositRate.get(streamHead));
+            streamDepositEnd.remove(streamHead);
+            streamDepositRate.remove(streamHead);
+            streamHead++;
+        }
+
+        streamReserved  = streamReserved - released;
+        streamLastBlock = to;
+
+        // Without shareholders the released profits go back to the undistributed balance
+        creditRewardPerShare(released);
+    }
+
+    /**
+     * @dev Streamed profits released from streamLastBlock up to the given block, without changing any state.
+     *      Each deposit adds its own rate until its end block, deposits are ordered by end block
+     * */
+    private long streamReleasedUntil(long to) {
+
+        if(to <= streamLastBlock) {
+            return 0;
+        }
+        if(to >= streamEnd) {
+            return streamReserved;
+        }
+
+        BigInteger rate     = streamRate;
+        BigInteger released = BigInteger.ZERO;
+        long from = streamLastBlock;
+
+        for(long i = streamHead; i < streamTail; i++) {
+            long end = streamDepositEnd.get(i);
+            if(end > to) {
+                break;
+            }
+            released = released.add(rate.multiply(BigInteger.valueOf(end - from)));
+            rate     = rate.subtract(streamDepositRate.get(i));
+            from     = end;
+        }
+        released = released.add(rate.multiply(BigInteger.valueOf(to - from)));
+
+        long amount = toLong(released.divide(ACC_PRECISION));
+        return amount < streamReserved ? amount : streamReserved;
+    }
+
+    /**
+     * @dev Adds a deposit to the stream, released linearly at its own rate over the next streamDuration blocks.
+     *      Must run right after releaseStream so the stream is up to date with the current block
+     * */
+    private void streamProfits(long profits) {
+
+        if(profits == 0) {
+            return;
+        }
+
+        long end = Block.number() + streamDuration;
+        BigInteger rate = BigInteger.valueOf(profits).multiply(ACC_PRECISION).divide(BigInteger.valueOf(streamDuration));
+
+        streamReserved  = safeAdd(streamReserved, profits);
+        streamRate      = streamRate.add(rate);
+        streamLastBlock = Block.number();
+        streamEnd       = end;
+
+        // Deposits of the same block end together
+        if(streamTail > streamHead && streamDepositEnd.get(streamTail - 1) == end) {
+            streamDepositRate.put(streamTail - 1, streamDepositRate.get(streamTail - 1).add(rate));
+            return;
+        }
+
+        streamDepositEnd.put(streamTail, end);
+        streamDepositRate.put(streamTail, rate);
+        streamTail++;
+    }
+
+    /**
+     * @dev Amount credited by an accumulator increment, rounded up so the owed
+     *      total always covers every shareholder payout
+     * */
+    private BigInteger creditedAmount(BigInteger increment, BigInteger totalShares) {
+        BigInteger[] credited = increment.multiply(totalShares).divideAndRemainder(ACC_PRECISION);
+        return credited[1].compareTo(BigInteger.ZERO) > 0 ? credited[0].add(BigInteger.ONE) : credited[0];
+    }
+
+    /**
+     * @dev Credits received asset profits, plus any previous remainder, to the asset accumulators.
+     *      Tiers take their fixed split of the received profits only, so a remainder kept
+     *      while nobody held weight is never split again and goes to the weighted holders
+     * */
+    private void creditAsset(String key, AssetAccumulator asset, BigInteger amount) {
+
+        BigInteger profits = asset.getUndistributed().add(amount);
+        asset.setUndistributed(profits);
+
+        if(totalWeight == 0 && tieredShareholders == 0) {
+            return;
+        }
+
+        profits = profits.subtract(creditAssetTiers(key, asset, amount));
+        asset.setUndistributed(profits);
+
+        if(totalWeight == 0) {
+            return;
+        }
+
+        BigInteger totalShares = BigInteger.valueOf(totalWeight);
+        BigInteger increment   = profits.multiply(ACC_PRECISION).divide(totalShares);
+        if(increment.compareTo(BigInteger.ZERO) == 0) {
+            return;
+        }
+
+        BigInteger owed = creditedAmount(increment, totalShares);
+
+        asset.setRewardPerShare(asset.getRewardPerShare().add(increment));
+        asset.setOwed(asset.getOwed().add(owed));
+        asset.setAllTimeRewards(asset.getAllTimeRewards().add(owed));
+        asset.setUndistributed(profits.subtract(owed));
+    }
+
+    /**
+     * @dev Credits the split of every tier with members to the tier accumulators of the asset
+     *
+     * @return asset profits credited to tiers
+     * */
+    private BigInteger creditAssetTiers(String key, AssetAccumulator asset, BigInteger amount) {
+
+        BigInteger credited = BigInteger.ZERO;
+
+        for(int i = 0; i < tiers.size(); i++) {
+            ShareholderTier tier = tiers.get(i);
+            if(tier.getMembers() == 0 || tier.getSplit() == 0) {
+                continue;
+            }
+
+            BigInteger members     = BigInteger.valueOf(tier.getMembers());
+            BigInteger tierProfits = amount.multiply(BigInteger.valueOf(tier.getSplit())).divide(BigInteger.valueOf(BASIS_POINTS));
+            BigInteger increment   = tierProfits.multiply(ACC_PRECISION).divide(members);
+            if(increment.compareTo(BigInteger.ZERO) == 0) {
+                continue;
+            }
+
+            tier.setAssetRewardPerMember(key, tier.getAssetRewardPerMember(key).add(increment));
+            credited = credited.add(creditedAmount(increment, members));
+        }
+
+        asset.setOwed(asset.getOwed().add(credited));
+        asset.setAllTimeRewards(asset.getAllTimeRewards().add(credited));
+        return credited;
+    }
+
+    /**
+     * @dev Freezes the profits and total weight of a new round over the current shareholders.
+     *      Profits credited to the accumulators since the last round, e.g. when an epoch closed
+     *      on a membership change, are pushed by the round too, as payRound settles every account.
+     *
+     * @return true if the round was started
+     * */
+    private boolean startRound() {
+
+        if(totalWeight == 0 && tieredShareholders == 0) {
+            return false;
+        }
+
+        // Profits of a single default weight share, or of an average tier member
+        // when nobody holds weight, must reach the transferable minimum
+        long profits = undistributedBalance();
+        long individualProfits = totalWeight > 0
+                ? mulDiv(profits, DEFAULT_WEIGHT, totalWeight)
+                : mulDiv(profits, totalTierSplit, BASIS_POINTS) / tieredShareholders;
+        if(individualProfits >= MIN_NULS_AMOUNT) {
+            // Tiers take their fixed split first, the round pays the rest by weight
+            profits = profits - creditTiers(profits);
+            if(totalWeight == 0) {
+                heldProfits = safeAdd(heldProfits, profits);
+                profits = 0;
+            }
+            carriedForward = 0;
+        } else if(unpushedProfits >= MIN_NULS_AMOUNT) {
+            // Only push the accumulator balances, the new profits wait for the next round
+            carriedForward = profits;
+            profits = 0;
+        } else {
+            carriedForward = profits;
+            return false;
+        }
+
+        roundId++;
+        roundActive   = true;
+        roundProfits  = profits;
+        roundWeight   = totalWeight;
+        roundReserved = profits;
+        roundCursor   = 0;
+        roundEnd      = shareholdersList.size();
+        unpushedProfits = 0;
+        lastDistributionBlock = Block.number();
+        return true;
+    }
+
+    /**
+     * @dev Profits of the account in the current round: roundProfits * weight / roundWeight
+     * */
+    private long roundShareOf(ShareholderRecord record) {
+        return mulDiv(roundProfits, record.getWeight(), roundWeight);
+    }
+
+    /**
+     * @dev Pays up to maxCount shareholders from the round cursor, stopping early
+     *      when the remaining gas drops below the safety margin.
+     *      Amounts below the minimum transferable are kept in the shareholder
+     *      claimable balance and paid together with a later round.
+     * */
+    private void payRound(int maxCount) {
+
+        int end = roundEnd - roundCursor > maxCount ? roundCursor + maxCount : roundEnd;
+
+        for (; roundCursor < end; roundCursor++) {
+
+            if(Msg.gasleft() < gasSafetyMargin) {
+                break;
+            }
+
+            Address account = shareholdersList.get(roundCursor);
+            ShareholderRecord record = shareholders.get(account);
+            long individualProfits = roundShareOf(record);
+
+            settleShareholder(record);
+
+            roundReserved  = safeSub(roundReserved, individualProfits);
+            allTimeRewards = safeAdd(allTimeRewards, individualProfits);
+
+            long carried = record.getClaimable();
+            long amount  = safeAdd(carried, individualProfits);
+
+            if(amount < MIN_NULS_AMOUNT) {
+                record.setClaimable(amount);
+                totalOwed = safeAdd(totalOwed, individualProfits);
+                continue;
+            }
+
+            record.setClaimable(0);
+            record.setEarned(safeAdd(record.getEarned(), amount));
+            totalOwed    = safeSub(totalOwed, carried);
+            totalClaimed = safeAdd(totalClaimed, amount);
+
+            account.transfer(BigInteger.valueOf(amount));
+
+            roundPaid        = safeAdd(roundPaid, individualProfits);
+            roundCarriedPaid = safeAdd(roundCarriedPaid, carried);
+            roundRecipients++;
+
+            // Emit event with the Stake event
+            if(!compactEvents) {
+                emit(new RewardPaid(account, BigInteger.valueOf(amount)));
+            }
+        }
+
+        if(roundCursor >= roundEnd) {
+            finishRound();
+        }
+    }
+
+    /**
+     * @dev Credits the frozen round share of a shareholder not yet paid as claimable
+     *      and moves it into the paid region, so its weight can change or it can leave
+     * */
+    private void settleRoundShare(ShareholderRecord record) {
+
+        int index = record.getIndex();
+        if(index < roundCursor || index >= roundEnd) {
+            return;
+        }
+
+        long individualProfits = roundShareOf(record);
+        record.setClaimable(safeAdd(record.getClaimable(), individualProfits));
+        roundReserved  = safeSub(roundReserved, individualProfits);
+        totalOwed      = safeAdd(totalOwed, individualProfits);
+        allTimeRewards = safeAdd(allTimeRewards, individualProfits);
+
+        swapShareholders(index, roundCursor);
+        roundCursor++;
+
+        if(roundCursor >= roundEnd) {
+            finishRound();
+        }
+    }
+
+    /**
+     * @dev Removes a shareholder from shareholdersList in O(1) by swapping the last entry into the gap.
+     *      During a round the list is split in paid [0, cursor), unpaid [cursor, end) and not eligible
+     *      [end, size) regions, so the gap is first moved to the boundary of each region it crosses
+     *      to keep every remaining shareholder in its region.
+     * */
+    private void removeFromList(ShareholderRecord record) {
+
+        int gap  = record.getIndex();
+        int last = shareholdersList.size() - 1;
+
+        if(roundActive) {
+            if(gap < roundCursor) {
+                moveShareholder(roundCursor - 1, gap);
+                gap = --roundCursor;
+            }
+            if(gap < roundEnd) {
+                moveShareholder(roundEnd - 1, gap);
+                gap = --roundEnd;
+            }
+        }
+
+        moveShareholder(last, gap);
+        shareholdersList.remove(last);
+        record.setIndex(-1);
+
+        if(roundActive && roundCursor >= roundEnd) {
+            finishRound();
+        }
+    }
+
+    private void swapShareholders(int a, int b) {
+        if(a == b) {
+            return;
+        }
+        Address first = shareholdersList.get(a);
+        moveShareholder(b, a);
+        shareholdersList.set(b, first);
+        shareholders.get(first).setIndex(b);
+    }
+
+    private void moveShareholder(int from, int to) {
+        if(from == to) {
+            return;
+        }
+        Address moved = shareholdersList.get(from);
+        shareholdersList.set(to, moved);
+        shareholders.get(moved).setIndex(to);
+    }
+
+    /**
+     * @dev Closes the round, carrying the division remainder to the next distribution
+     * */
+    private void finishRound() {
+
+        if(compactEvents) {
+            long perShare = mulDiv(roundProfits, DEFAULT_WEIGHT, roundWeight);
+            emit(new DistributionCompleted(roundId, BigInteger.valueOf(perShare), roundRecipients, BigInteger.valueOf(roundPaid), BigInteger.valueOf(roundCarriedPaid)));
+        }
+
+        carriedForward  = roundReserved;
+        roundActive     = false;
+        roundProfits    = 0;
+        roundWeight     = 0;
+        roundReserved   = 0;
+        roundPaid       = 0;
+        roundCarriedPaid = 0;
+        roundRecipients = 0;
+        roundCursor     = 0;
+        roundEnd        = 0;
+    }
+
+    /**
+     * @dev Profits accrued by the account since its last weight and tier accumulator checkpoints
+     * */
+    private long pendingFromAccumulator(ShareholderRecord record) {
+        BigInteger weight = BigInteger.valueOf(record.getWeight());
+        long pending = toLong(weight.multiply(rewardPerShare.subtract(record.getRewardPerSharePaid())).divide(ACC_PRECISION));
+
+        if(record.getTier() > 0) {
+            BigInteger tierReward = tierOf(record.getTier()).getRewardPerMember().subtract(record.getTierRewardPaid());
+            pending = safeAdd(pending, toLong(tierReward.divide(ACC_PRECISION)));
+        }
+
+        return pending;
+    }
+
+    /**
+     * @dev Moves accrued profits into the account claimable balance and checkpoints it
+     * */
+    private void settleShareholder(ShareholderRecord record) {
+        long pending = pendingFromAccumulator(record);
+        if(pending > 0) {
+            record.setClaimable(safeAdd(record.getClaimable(), pending));
+        }
+        record.setRewardPerSharePaid(rewardPerShare);
+        if(record.getTier() > 0) {
+            record.setTierRewardPaid(tierOf(record.getTier()).getRewardPerMember());
+        }
+    }
+
+    /**
+     * @dev Locks in everything the account earned so far into its claimable balances, touching
+     *      only this account: its frozen share of an active round, accumulator and asset profits.
+     *      Must run before the account weight changes.
+     * */
+    private void settleAccount(ShareholderRecord record) {
+        if(roundActive) {
+            settleRoundShare(record);
+        }
+        settleShareholder(record);
+        settleAssets(record);
+    }
+
+    /**
+     * @dev Profits of an asset accrued by the account since its last checkpoint
+     * */
+    private BigInteger pendingAssetFromAccumulator(ShareholderRecord record, String key, AssetAccumulator asset) {
+        BigInteger weight  = BigInteger.valueOf(record.getWeight());
+        BigInteger pending = weight.multiply(asset.getRewardPerShare().subtract(record.getAssetRewardPerSharePaid(key))).divide(ACC_PRECISION);
+
+        if(record.getTier() > 0) {
+            BigInteger tierReward = tierOf(record.getTier()).getAssetRewardPerMember(key).subtract(record.getAssetTierRewardPaid(key));
+            pending = pending.add(tierReward.divide(ACC_PRECISION));
+        }
+
+        return pending;
+    }
+
+    private void settleAsset(ShareholderRecord record, String key, AssetAccumulator asset) {
+        BigInteger pending = pendingAssetFromAccumulator(record, key, asset);
+        if(pending.compareTo(BigInteger.ZERO) > 0) {
+            record.setAssetClaimable(key, record.getAssetClaimable(key).add(pending));
+        }
+        record.setAssetRewardPerSharePaid(key, asset.getRewardPerShare());
+        if(record.getTier() > 0) {
+            record.setAssetTierRewardPaid(key, tierOf(record.getTier()).getAssetRewardPerMember(key));
+        }
+    }
+
+    /**
+     * @dev Settles every asset of the account before its weight changes, O(number of assets)
+     * */
+    private void settleAssets(ShareholderRecord record) {
+        for(int i = 0; i < assetKeys.size(); i++) {
+            String key = assetKeys.get(i);
+            settleAsset(record, key, assets.get(key));
+        }
+    }
+
+    /**
+     * @dev Transfers the Nuls claimable balance of the account
+     * */
+    private void payClaimable(Address account, ShareholderRecord record) {
+
+        long amount = record.getClaimable();
+
+        record.setClaimable(0);
+        record.setEarned(safeAdd(record.getEarned(), amount));
+        totalOwed    = safeSub(totalOwed, amount);
+        totalClaimed = safeAdd(totalClaimed, amount);
+
+        account.transfer(BigInteger.valueOf(amount));
+
+        emit(new RewardPaid(account, BigInteger.valueOf(amount)));
+    }
+
+    /**
+     * @dev Transfers the claimable balance of a cross-chain asset or NRC20 token
+     *
+     * @return true if anything was paid
+     * */
+    private boolean payAsset(Address account, ShareholderRecord record, String key) {
+
+        AssetAccumulator asset = assets.get(key);
+
+        settleAsset(record, key, asset);
+
+        BigInteger amount = record.getAssetClaimable(key);
+        if(amount.compareTo(BigInteger.ZERO) == 0) {
+            return false;
+        }
+
+        record.setAssetClaimable(key, BigInteger.ZERO);
+        asset.setOwed(asset.getOwed().subtract(amount));
+
+        if(asset.getToken() != null) {
+            asset.getToken().call("transfer", null, new String[][]{{account.toString()}, {amount.toString()}}, BigInteger.ZERO);
+            emit(new TokenRewardPaid(account, asset.getToken(), amount));
+        } else {
+            account.transfer(amount, asset.getAssetChainId(), asset.getAssetId());
+            emit(new AssetRewardPaid(account, asset.getAssetChainId(), asset.getAssetId(), amount));
+        }
+
+        return true;
+    }
+
+    /**
+     * @dev Returns the asset accumulator, registering the asset on first use
+     * */
+    private AssetAccumulator assetOf(int assetChainId, int assetId) {
+        String key = assetKey(assetChainId, assetId);
+        AssetAccumulator asset = assets.get(key);
+        if(asset == null) {
+            asset = new AssetAccumulator(assetChainId, assetId);
+            assets.put(key, asset);
+            assetKeys.add(key);
+        }
+        return asset;
+    }
+
+    private String assetKey(int assetChainId, int assetId) {
+        return assetChainId + "-" + assetId;
+    }
+
+    private String tokenKey(Address token) {
+        return "token-" + token;
+    }
+
+    /**
+     * @dev Adds a new Shareholder with the given weight, checkpointed at the current accumulator
+     * */
+    private void registerShareholder(Address account, int weight) {
+
+        require(account != null, "Invalid Shareholder");
+        require(weight > 0, "Invalid Weight");
+
+        ShareholderRecord record = recordOf(account);
+        require(!record.isActive(), "Already Shareholder");
+
+        settleAccount(record);
+
+        record.setActive(true);
+        record.setIndex(shareholdersList.size());
+        record.setWeight(weight);
+        shareholdersList.add(account);
+        totalWeight += weight;
+    }
+
+    /**
+     * @dev Removes an active Shareholder, keeping its settled profits claimable
+     * */
+    private void unregisterShareholder(ShareholderRecord record) {
+
+        settleAccount(record);
+        leaveTier(record);
+        removeFromList(record);
+
+        totalWeight -= record.getWeight();
+        record.setActive(false);
+        record.setWeight(0);
+    }
+
+    /**
+     * @dev Parses a batch of addresses in a single pass, rejecting duplicates
+     *      and addresses whose shareholder status differs from the expected one
+     * */
+    private Address[] validateBatch(String[] shareholders_, boolean active) {
+
+        require(shareholders_ != null && shareholders_.length > 0, "Empty batch");
+
+        Address[] accounts = new Address[shareholders_.length];
+        Set<Address> seen = new HashSet<Address>();
+
+        for(int i = 0; i < shareholders_.length; i++) {
+            Address account = new Address(shareholders_[i]);
+            require(seen.add(account), "Duplicated Shareholder");
+
+            ShareholderRecord record = shareholders.get(account);
+            boolean isActive = record != null && record.isActive();
+            require(isActive == active, active ? "Not Shareholder" : "Already Shareholder");
+
+            accounts[i] = account;
+        }
+
+        return accounts;
+    }
+
+    /**
+     * @dev Returns the account record, creating it on first use
+     * */
+    private ShareholderRecord recordOf(Address account) {
+        ShareholderRecord record = shareholders.get(account);
+        if(record == null) {
+            record = new ShareholderRecord();
+            shareholders.put(account, record);
+        }
+        return record;
+    }
+
+    private long merkleRemainingOf(long epoch) {
+        Long remaining = merkleRemaining.get(epoch);
+        return remaining == null ? 0 : remaining;
+    }
+
+    /**
+     * @dev Overflow checked addition of Nuls amounts
+     * */
+    private static long safeAdd(long a, long b) {
+        long result = a + b;
+        require(((a ^ result) & (b ^ result)) >= 0, "Amount overflow");
+        return result;
+    }
+
+    /**
+     * @dev Overflow checked subtraction of Nuls amounts
+     * */
+    private static long safeSub(long a, long b) {
+        long result = a - b;
+        require(((a ^ b) & (a ^ result)) >= 0, "Amount overflow");
+        return result;
+    }
+
+    /**
+     * @dev a * b / c, widening to BigInteger only when the product overflows a long
+     * */
+    private static long mulDiv(long a, long b, long c) {
+        if(a == 0 || b == 0) {
+            return 0;
+        }
+        if(a <= Long.MAX_VALUE / b) {
+            return a * b / c;
+        }
+        return toLong(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c)));
+    }
+
+    /**
+     * @dev Converts a BigInteger Nuls amount into a long, rejecting values that do not fit
+     * */
+    private static long toLong(BigInteger value) {
+        require(value.bitLength() < 64, "Amount overflow");
+        return value.longValue();
+    }
+
+    private String merkleWordKey(long epoch, int index) {
+        return epoch + ":" + (index / 64);
     }
 
     /*====================================
@@ -331,4 +2605,307 @@ public class Profits implements Contract{
         }
     }
 
+
+    class MerkleRootPublished implements Event {
+        private long epoch;
+        private String root;
+        private BigInteger amount;
+
+        public MerkleRootPublished(long epoch, String root, BigInteger amount) {
+            this.epoch = epoch;
+            this.root = root;
+            this.amount = amount;
+        }
+
+        public long getEpoch() {
+            return epoch;
+        }
+
+        public void setEpoch(long epoch) {
+            this.epoch = epoch;
+        }
+
+        public String getRoot() {
+            return root;
+        }
+
+        public void setRoot(String root) {
+            this.root = root;
+        }
+
+        public BigInteger getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigInteger amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            MerkleRootPublished that = (MerkleRootPublished) o;
+
+            if (epoch != that.epoch) return false;
+            if (root != null ? !root.equals(that.root) : that.root != null) return false;
+            return amount != null ? amount.equals(that.amount) : that.amount == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (epoch ^ (epoch >>> 32));
+            result = 31 * result + (root != null ? root.hashCode() : 0);
+            result = 31 * result + (amount != null ? amount.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "MerkleRootPublished{" +
+                    "epoch=" + epoch +
+                    ", root='" + root + '\'' +
+                    ", amount=" + amount +
+                    '}';
+        }
+    }
+
+
+    class DistributionCompleted implements Event {
+        private long roundId;
+        private BigInteger perShare;
+        private int recipients;
+        private BigInteger totalPaid;
+        private BigInteger carriedPaid;
+
+        public DistributionCompleted(long roundId, BigInteger perShare, int recipients, BigInteger totalPaid, BigInteger carriedPaid) {
+            this.roundId = roundId;
+            this.perShare = perShare;
+            this.recipients = recipients;
+            this.totalPaid = totalPaid;
+            this.carriedPaid = carriedPaid;
+        }
+
+        public long getRoundId() {
+            return roundId;
+        }
+
+        public void setRoundId(long roundId) {
+            this.roundId = roundId;
+        }
+
+        public BigInteger getPerShare() {
+            return perShare;
+        }
+
+        public void setPerShare(BigInteger perShare) {
+            this.perShare = perShare;
+        }
+
+        public int getRecipients() {
+            return recipients;
+        }
+
+        public void setRecipients(int recipients) {
+            this.recipients = recipients;
+        }
+
+        public BigInteger getTotalPaid() {
+            return totalPaid;
+        }
+
+        public void setTotalPaid(BigInteger totalPaid) {
+            this.totalPaid = totalPaid;
+        }
+
+        public BigInteger getCarriedPaid() {
+            return carriedPaid;
+        }
+
+        public void setCarriedPaid(BigInteger carriedPaid) {
+            this.carriedPaid = carriedPaid;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            DistributionCompleted that = (DistributionCompleted) o;
+
+            if (roundId != that.roundId) return false;
+            if (recipients != that.recipients) return false;
+            if (perShare != null ? !perShare.equals(that.perShare) : that.perShare != null) return false;
+            if (totalPaid != null ? !totalPaid.equals(that.totalPaid) : that.totalPaid != null) return false;
+            return carriedPaid != null ? carriedPaid.equals(that.carriedPaid) : that.carriedPaid == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (roundId ^ (roundId >>> 32));
+            result = 31 * result + (perShare != null ? perShare.hashCode() : 0);
+            result = 31 * result + recipients;
+            result = 31 * result + (totalPaid != null ? totalPaid.hashCode() : 0);
+            result = 31 * result + (carriedPaid != null ? carriedPaid.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "DistributionCompleted{" +
+                    "roundId=" + roundId +
+                    ", perShare=" + perShare +
+                    ", recipients=" + recipients +
+                    ", totalPaid=" + totalPaid +
+                    ", carriedPaid=" + carriedPaid +
+                    '}';
+        }
+    }
+
+
+    class AssetRewardPaid implements Event {
+        private Address user;
+        private int assetChainId;
+        private int assetId;
+        private BigInteger amount;
+
+        public AssetRewardPaid(Address user, int assetChainId, int assetId, BigInteger amount) {
+            this.user = user;
+            this.assetChainId = assetChainId;
+            this.assetId = assetId;
+            this.amount = amount;
+        }
+
+        public Address getUser() {
+            return user;
+        }
+
+        public void setUser(Address user) {
+            this.user = user;
+        }
+
+        public int getAssetChainId() {
+            return assetChainId;
+        }
+
+        public void setAssetChainId(int assetChainId) {
+            this.assetChainId = assetChainId;
+        }
+
+        public int getAssetId() {
+            return assetId;
+        }
+
+        public void setAssetId(int assetId) {
+            this.assetId = assetId;
+        }
+
+        public BigInteger getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigInteger amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            AssetRewardPaid that = (AssetRewardPaid) o;
+
+            if (assetChainId != that.assetChainId) return false;
+            if (assetId != that.assetId) return false;
+            if (user != null ? !user.equals(that.user) : that.user != null) return false;
+            return amount != null ? amount.equals(that.amount) : that.amount == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = user != null ? user.hashCode() : 0;
+            result = 31 * result + assetChainId;
+            result = 31 * result + assetId;
+            result = 31 * result + (amount != null ? amount.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "AssetRewardPaid{" +
+                    "user=" + user +
+                    ", assetChainId=" + assetChainId +
+                    ", assetId=" + assetId +
+                    ", amount=" + amount +
+                    '}';
+        }
+    }
+
+
+    class TokenRewardPaid implements Event {
+        private Address user;
+        private Address token;
+        private BigInteger amount;
+
+        public TokenRewardPaid(Address user, Address token, BigInteger amount) {
+            this.user = user;
+            this.token = token;
+            this.amount = amount;
+        }
+
+        public Address getUser() {
+            return user;
+        }
+
+        public void setUser(Address user) {
+            this.user = user;
+        }
+
+        public Address getToken() {
+            return token;
+        }
+
+        public void setToken(Address token) {
+            this.token = token;
+        }
+
+        public BigInteger getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigInteger amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            TokenRewardPaid that = (TokenRewardPaid) o;
+
+            if (user != null ? !user.equals(that.user) : that.user != null) return false;
+            if (token != null ? !token.equals(that.token) : that.token != null) return false;
+            return amount != null ? amount.equals(that.amount) : that.amount == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = user != null ? user.hashCode() : 0;
+            result = 31 * result + (token != null ? token.hashCode() : 0);
+            result = 31 * result + (amount != null ? amount.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "TokenRewardPaid{" +
+                    "user=" + user +
+                    ", token=" + token +
+                    ", amount=" + amount +
+                    '}';
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @title   Shareholder Record
+ *
+ * @dev     Keeps all the state of a shareholder in a single stored object
+ *
+ */
+public class ShareholderRecord {
+
+    private boolean     active              = false;               // Approved Shareholder
+    private int         index               = -1;                  // Position in the shareholders list
+    private int         weight              = 0;                   // Shareholder weight in basis points
+    private BigInteger  rewardPerSharePaid  = BigInteger.ZERO;     // Accumulator checkpoint
+    private long        claimable           = 0;                   // Settled profits waiting to be claimed
+    private long        earned              = 0;                   // All Time Profits Earned
+    private int         tier                = 0;                   // Shareholder tier id, 0 when not in a tier
+    private BigInteger  tierRewardPaid      = BigInteger.ZERO;     // Tier accumulator checkpoint
+    private int         weightBeforeTier    = 0;                   // Weight restored when leaving the tiers
+
+    private Map<String, BigInteger> assetRewardPerSharePaid = new HashMap<String, BigInteger>();   // Accumulator checkpoint per asset
+    private Map<String, BigInteger> assetClaimable          = new HashMap<String, BigInteger>();   // Settled profits per asset
+    private Map<String, BigInteger> assetTierRewardPaid     = new HashMap<String, BigInteger>();   // Tier accumulator checkpoint per asset
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public BigInteger getRewardPerSharePaid() {
+        return rewardPerSharePaid;
+    }
+
+    public void setRewardPerSharePaid(BigInteger rewardPerSharePaid) {
+        this.rewardPerSharePaid = rewardPerSharePaid;
+    }
+
+    public long getClaimable() {
+        return claimable;
+    }
+
+    public void setClaimable(long claimable) {
+        this.claimable = claimable;
+    }
+
+    public long getEarned() {
+        return earned;
+    }
+
+    public void setEarned(long earned) {
+        this.earned = earned;
+    }
+
+    public int getTier() {
+        return tier;
+    }
+
+    public void setTier(int tier) {
+        this.tier = tier;
+    }
+
+    public BigInteger getTierRewardPaid() {
+        return tierRewardPaid;
+    }
+
+    public void setTierRewardPaid(BigInteger tierRewardPaid) {
+        this.tierRewardPaid = tierRewardPaid;
+    }
+
+    public int getWeightBeforeTier() {
+        return weightBeforeTier;
+    }
+
+    public void setWeightBeforeTier(int weightBeforeTier) {
+        this.weightBeforeTier = weightBeforeTier;
+    }
+
+    public BigInteger getAssetRewardPerSharePaid(String asset) {
+        BigInteger paid = assetRewardPerSharePaid.get(asset);
+        return paid == null ? BigInteger.ZERO : paid;
+    }
+
+    public void setAssetRewardPerSharePaid(String asset, BigInteger rewardPerSharePaid) {
+        assetRewardPerSharePaid.put(asset, rewardPerSharePaid);
+    }
+
+    public BigInteger getAssetClaimable(String asset) {
+        BigInteger claimable = assetClaimable.get(asset);
+        return claimable == null ? BigInteger.ZERO : claimable;
+    }
+
+    public void setAssetClaimable(String asset, BigInteger claimable) {
+        assetClaimable.put(asset, claimable);
+    }
+
+    public BigInteger getAssetTierRewardPaid(String asset) {
+        BigInteger paid = assetTierRewardPaid.get(asset);
+        return paid == null ? BigInteger.ZERO : paid;
+    }
+
+    public void setAssetTierRewardPaid(String asset, BigInteger tierRewardPaid) {
+        assetTierRewardPaid.put(asset, tierRewardPaid);
+    }
+}
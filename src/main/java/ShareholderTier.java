@@ -0,0 +1,62 @@
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @title   Shareholder Tier
+ *
+ * @dev     Class of shareholders receiving a fixed split of the profits,
+ *          shared equally between its members
+ *
+ */
+public class ShareholderTier {
+
+    private String      name;                                      // Tier name
+    private int         split;                                     // Share of the profits in basis points
+    private int         members         = 0;                       // Number of Shareholders in the tier
+    private BigInteger  rewardPerMember = BigInteger.ZERO;         // Accumulated profits per member, scaled by 1e18
+
+    private Map<String, BigInteger> assetRewardPerMember = new HashMap<String, BigInteger>();   // Accumulated profits per member per asset
+
+    public ShareholderTier(String name, int split) {
+        this.name = name;
+        this.split = split;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSplit() {
+        return split;
+    }
+
+    public void setSplit(int split) {
+        this.split = split;
+    }
+
+    public int getMembers() {
+        return members;
+    }
+
+    public void setMembers(int members) {
+        this.members = members;
+    }
+
+    public BigInteger getRewardPerMember() {
+        return rewardPerMember;
+    }
+
+    public void setRewardPerMember(BigInteger rewardPerMember) {
+        this.rewardPerMember = rewardPerMember;
+    }
+
+    public BigInteger getAssetRewardPerMember(String asset) {
+        BigInteger reward = assetRewardPerMember.get(asset);
+        return reward == null ? BigInteger.ZERO : reward;
+    }
+
+    public void setAssetRewardPerMember(String asset, BigInteger rewardPerMember) {
+        assetRewardPerMember.put(asset, rewardPerMember);
+    }
+}